@@ -0,0 +1,58 @@
+package pentago;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BlockBenchmark.java
+ *
+ * Throughput of the Block operations every Board move goes through.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BlockBenchmark {
+
+    private Block myBlock;
+
+    @Setup
+    public void setUp() {
+        myBlock = new Block("WB.W..B.W");
+    }
+
+    @Benchmark
+    public Block rotateRight() {
+        myBlock.rotateRight();
+        return myBlock;
+    }
+
+    @Benchmark
+    public Block rotateLeft() {
+        myBlock.rotateLeft();
+        return myBlock;
+    }
+
+    /**
+     * Places a piece and takes it off again, so the block is the same for every call.
+     */
+    @Benchmark
+    public Block updateBlock() {
+        myBlock.updateBlock(5, "W");
+        myBlock.updateBlock(5, ".");
+        return myBlock;
+    }
+
+}
@@ -0,0 +1,62 @@
+package pentago;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BoardBenchmark.java
+ *
+ * Throughput of the Board operations the original game tree search is built on, on each of the fixed
+ * positions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDGAME, Positions.ENDGAME})
+    public String myPosition;
+
+    private Board myBoard;
+
+    @Setup
+    public void setUp() {
+        myBoard = Positions.create(myPosition);
+    }
+
+    @Benchmark
+    public Board copy() {
+        return new Board(myBoard);
+    }
+
+    @Benchmark
+    public ArrayList<Move> getValidMoves() {
+        return myBoard.getValidMoves();
+    }
+
+    @Benchmark
+    public int evaluateUtility() {
+        return myBoard.evaluateUtility("W");
+    }
+
+    @Benchmark
+    public boolean isWinner() {
+        return myBoard.isWinner("W");
+    }
+
+}
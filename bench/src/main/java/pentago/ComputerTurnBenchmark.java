@@ -0,0 +1,63 @@
+package pentago;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ComputerTurnBenchmark.java
+ *
+ * A whole computer turn as Game.computerTurn() plays it: the Board is converted to a BitBoard, searched,
+ * and the best move is played on the Board. The search runs to a fixed depth instead of the configured
+ * time budget, on an emptied transposition table, so every call does the same work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ComputerTurnBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDGAME, Positions.ENDGAME})
+    public String myPosition;
+
+    @Param({"3"})
+    public int myDepth;
+
+    private Board myBoard;
+
+    private SearchEngine myEngine;
+
+    @Setup
+    public void setUp() {
+        myBoard = Positions.create(myPosition);
+        myEngine = new SearchEngine(new TranspositionTable(16));
+        myEngine.setUseSymmetry(true);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        myEngine.getTable().clear();
+    }
+
+    @Benchmark
+    public Board computerTurn() {
+        Board board = new Board(myBoard);
+        SearchResult result = myEngine.search(new BitBoard(board), BitBoard.WHITE, myDepth);
+        board.makeMove(result.getMove(), "W");
+        return board;
+    }
+
+}
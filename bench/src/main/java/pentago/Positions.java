@@ -0,0 +1,47 @@
+package pentago;
+
+/**
+ * Positions.java
+ *
+ * The fixed positions the benchmarks run on, reached by play from the empty board with no winner yet.
+ * White is to move in each of them.
+ */
+public class Positions {
+
+    /**
+     * Names of the positions, for use as a JMH parameter.
+     */
+    public static final String OPENING = "opening";
+    public static final String MIDGAME = "midgame";
+    public static final String ENDGAME = "endgame";
+
+    /**
+     * Builds one of the positions.
+     *
+     * @param theName OPENING (2 pieces), MIDGAME (14 pieces) or ENDGAME (26 pieces).
+     * @return A new Board holding the position.
+     * @throws IllegalArgumentException Thrown if the name is not one of the positions.
+     */
+    public static Board create(String theName) throws IllegalArgumentException {
+        String[] blocks;
+        switch (theName) {
+            case OPENING:
+                blocks = new String[] {".........", ".....W..B", ".........", "........."};
+                break;
+            case MIDGAME:
+                blocks = new String[] {"...BWBBWW", ".BW.BB..W", "....W.B..", "......W.."};
+                break;
+            case ENDGAME:
+                blocks = new String[] {"BW.WW.W.W", ".BB.WWBW.", "BBWWBWB.B", "BWBBW.B.."};
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown position " + theName + ".");
+        }
+        Board board = new Board();
+        for (int block = 1; block < 5; block++) {
+            board.getBlock(block).setState(blocks[block - 1]);
+        }
+        return board;
+    }
+
+}
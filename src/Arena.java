@@ -0,0 +1,325 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Arena.java
+ *
+ * Self-play between two engine configurations, to check that a change does not cost playing strength.
+ * Games are played concurrently on a pool of threads, each starting from a few random moves so the
+ * engines do not replay the same game. Every opening is played twice with the colors swapped, which
+ * cancels out any advantage of moving first.
+ *
+ * Each finished game is written to the log on one line:
+ *
+ *   game 12 first B result 1-0 plies 21 moves 1/5 2L:3,4/1 4R:12,...
+ *
+ * where "first" is the color the first engine played, the result is given for white and black as usual
+ * (1-0, 0-1 or 1/2), the opening moves come without a time and every engine move is followed by the
+ * milliseconds it took. The score of the match is kept in a MatchScore from the first engine's point of
+ * view, and the match may end early once an SPRT decides it.
+ */
+public class Arena {
+
+    /* The engines playing, and the limits of each. */
+    private Engine myFirst;
+    private Engine mySecond;
+    private SearchLimits myFirstLimits;
+    private SearchLimits mySecondLimits;
+
+    /* The number of threads playing games. */
+    private int myThreads;
+
+    /* The number of random moves each game starts with. */
+    private int myOpeningPlies = 4;
+
+    /* The seed of the random openings. */
+    private long mySeed;
+
+    /* Where finished games are written, or null. */
+    private PrintStream myLog;
+
+    /* The SPRT that may end the match early, unused while myAlpha is 0. */
+    private double myElo0;
+    private double myElo1;
+    private double myAlpha;
+    private double myBeta;
+
+    /* The score of the match, from the first engine's point of view. */
+    private MatchScore myScore;
+
+    /**
+     * Creates an arena for two engine configurations. Each engine gets its own transposition table,
+     * shared by all of its games, and searches each move within the depth and time budget of its
+     * configuration.
+     *
+     * @param theFirst The settings of the first engine.
+     * @param theSecond The settings of the second engine.
+     * @param theThreads The number of games played at once, at least 1.
+     * @throws IllegalArgumentException Thrown if the number of threads is less than 1.
+     */
+    public Arena(EngineConfig theFirst, EngineConfig theSecond, int theThreads) throws IllegalArgumentException {
+        if (theThreads < 1) {
+            throw new IllegalArgumentException("The arena needs at least one thread.");
+        }
+        myFirst = new Engine(theFirst);
+        mySecond = new Engine(theSecond);
+        myFirstLimits = new SearchLimits(theFirst.getMaxDepth(), theFirst.getTimeBudgetMillis(), 0);
+        mySecondLimits = new SearchLimits(theSecond.getMaxDepth(), theSecond.getTimeBudgetMillis(), 0);
+        myThreads = theThreads;
+    }
+
+    /**
+     * Sets the number of random moves each game starts with.
+     *
+     * @param thePlies The number of moves, 0 to start from the empty board.
+     */
+    public void setOpeningPlies(int thePlies) {
+        myOpeningPlies = thePlies;
+    }
+
+    public void setSeed(long theSeed) {
+        mySeed = theSeed;
+    }
+
+    /**
+     * Sets where finished games are written.
+     *
+     * @param theLog The log, or null for none.
+     */
+    public void setLog(PrintStream theLog) {
+        myLog = theLog;
+    }
+
+    /**
+     * Ends the match as soon as an SPRT decides between two Elo differences of the first engine over the
+     * second (see MatchScore.sprt()).
+     *
+     * @param theElo0 The Elo difference of the null hypothesis.
+     * @param theElo1 The Elo difference of the alternative hypothesis, above theElo0.
+     * @param theAlpha The accepted chance of a false positive, above 0.
+     * @param theBeta The accepted chance of a false negative, above 0.
+     */
+    public void setSprt(double theElo0, double theElo1, double theAlpha, double theBeta) {
+        myElo0 = theElo0;
+        myElo1 = theElo1;
+        myAlpha = theAlpha;
+        myBeta = theBeta;
+    }
+
+    /**
+     * Plays a match. Games are numbered from 0; games 2k and 2k+1 share an opening, the first engine
+     * playing white in the even game.
+     *
+     * @param theGames The number of games to play, fewer if an SPRT decides the match first.
+     * @return The score of the match, from the first engine's point of view.
+     * @throws IllegalStateException Thrown if a game failed.
+     */
+    public MatchScore play(int theGames) throws IllegalStateException {
+        myScore = new MatchScore();
+        ExecutorService pool = Executors.newFixedThreadPool(myThreads);
+        try {
+            ArrayList<Future<?>> games = new ArrayList<>();
+            for (int i = 0; i < theGames; i++) {
+                int game = i;
+                games.add(pool.submit(() -> {
+                    if (!isDecided()) {
+                        playGame(game);
+                    }
+                }));
+            }
+            for (Future<?> game : games) {
+                join(game);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return myScore;
+    }
+
+    /**
+     * Checks whether the SPRT, if any, has decided the match.
+     *
+     * @return True if no more games are needed.
+     */
+    public boolean isDecided() {
+        return myAlpha > 0 && myScore.sprt(myElo0, myElo1, myAlpha, myBeta) != 0;
+    }
+
+    /**
+     * Plays one game and records its result.
+     *
+     * @param theGame The number of the game.
+     */
+    private void playGame(int theGame) {
+        boolean isFirstWhite = theGame % 2 == 0;
+        ArrayList<Move> opening = new ArrayList<>();
+        BitBoard board = opening(new Random(mySeed * 31 + theGame / 2), opening);
+        int color = opening.size() % 2;
+        StringBuilder moves = new StringBuilder();
+        for (Move move : opening) {
+            moves.append(moves.length() > 0 ? "," : "").append(move);
+        }
+
+        int state;
+        while ((state = board.getState()) == BitBoard.ONGOING) {
+            boolean isFirst = (color == BitBoard.WHITE) == isFirstWhite;
+            EngineResult result = isFirst ? myFirst.analyze(board, color, myFirstLimits)
+                                          : mySecond.analyze(board, color, mySecondLimits);
+            board.makeMove(result.getMove(), color);
+            moves.append(moves.length() > 0 ? "," : "").append(result.getMove()).append(':')
+                 .append(result.getTimeMillis());
+            color = 1 - color;
+        }
+
+        String result;
+        if (state == BitBoard.DRAW) {
+            myScore.addDraw();
+            result = "1/2";
+        } else {
+            if ((state == BitBoard.WHITE_WINS) == isFirstWhite) {
+                myScore.addWin();
+            } else {
+                myScore.addLoss();
+            }
+            result = state == BitBoard.WHITE_WINS ? "1-0" : "0-1";
+        }
+        if (myLog != null) {
+            String first = BitBoard.playerOf(isFirstWhite ? BitBoard.WHITE : BitBoard.BLACK);
+            String line = "game " + theGame + " first " + first + " result " + result + " plies " + pieces(board)
+                          + " moves " + moves;
+            synchronized (myLog) {
+                myLog.println(line);
+            }
+        }
+    }
+
+    /**
+     * Plays random moves from the empty board, drawing again if the game ends during them.
+     *
+     * @param theRandom The source of the moves.
+     * @param theMoves Filled with the moves played.
+     * @return The board after the opening moves.
+     */
+    private BitBoard opening(Random theRandom, ArrayList<Move> theMoves) {
+        while (true) {
+            BitBoard board = new BitBoard();
+            theMoves.clear();
+            while (theMoves.size() < myOpeningPlies && board.getState() == BitBoard.ONGOING) {
+                ArrayList<Move> moves = board.getValidMoves();
+                Move move = moves.get(theRandom.nextInt(moves.size()));
+                board.makeMove(move, theMoves.size() % 2);
+                theMoves.add(move);
+            }
+            if (board.getState() == BitBoard.ONGOING) {
+                return board;
+            }
+        }
+    }
+
+    /**
+     * Counts the pieces on a board, which is the number of moves played.
+     *
+     * @param theBoard The position.
+     * @return The number of pieces of both players.
+     */
+    private static int pieces(BitBoard theBoard) {
+        return Long.bitCount(theBoard.getPieces(BitBoard.WHITE) | theBoard.getPieces(BitBoard.BLACK));
+    }
+
+    /**
+     * Waits for a game to finish.
+     *
+     * @param theGame The game.
+     * @throws IllegalStateException Thrown if the game failed.
+     */
+    private static void join(Future<?> theGame) throws IllegalStateException {
+        try {
+            theGame.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a game.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Arena game failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Runs a match from the command line:
+     *
+     *   java Arena first.properties second.properties [-games n] [-threads n] [-opening plies]
+     *              [-depth n] [-time ms] [-seed n] [-log file] [-sprt elo0 elo1]
+     *
+     * Each engine reads its settings from its properties file (see EngineConfig); -depth and -time
+     * override the search limits of both. Games are written to the log file if one is given. -sprt ends
+     * the match once an SPRT with 5% error rates decides between the two Elo differences.
+     *
+     * @param theArgs The command line arguments.
+     * @throws IOException Thrown if the log file cannot be opened.
+     */
+    public static void main(String[] theArgs) throws IOException {
+        if (theArgs.length < 2) {
+            System.out.println("Usage: java Arena first.properties second.properties [-games n] [-threads n]"
+                               + " [-opening plies] [-depth n] [-time ms] [-seed n] [-log file] [-sprt elo0 elo1]");
+            return;
+        }
+        EngineConfig first = EngineConfig.load(theArgs[0]);
+        EngineConfig second = EngineConfig.load(theArgs[1]);
+        int games = 100;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int opening = 4;
+        long seed = 1;
+        String log = null;
+        double[] sprt = null;
+        for (int i = 2; i < theArgs.length; i++) {
+            switch (theArgs[i]) {
+                case "-games":   games = Integer.parseInt(theArgs[++i]); break;
+                case "-threads": threads = Integer.parseInt(theArgs[++i]); break;
+                case "-opening": opening = Integer.parseInt(theArgs[++i]); break;
+                case "-seed":    seed = Long.parseLong(theArgs[++i]); break;
+                case "-log":     log = theArgs[++i]; break;
+                case "-depth":
+                    first.set(EngineConfig.MAX_DEPTH, theArgs[++i]);
+                    second.set(EngineConfig.MAX_DEPTH, theArgs[i]);
+                    break;
+                case "-time":
+                    first.set(EngineConfig.TIME_BUDGET, theArgs[++i]);
+                    second.set(EngineConfig.TIME_BUDGET, theArgs[i]);
+                    break;
+                case "-sprt":
+                    sprt = new double[] {Double.parseDouble(theArgs[++i]), Double.parseDouble(theArgs[++i])};
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + theArgs[i]);
+            }
+        }
+
+        Arena arena = new Arena(first, second, threads);
+        arena.setOpeningPlies(opening);
+        arena.setSeed(seed);
+        if (sprt != null) {
+            arena.setSprt(sprt[0], sprt[1], 0.05, 0.05);
+        }
+        PrintStream out = log == null ? null : new PrintStream(new FileOutputStream(log), true);
+        arena.setLog(out);
+        long start = System.nanoTime();
+        MatchScore score = arena.play(games);
+        if (out != null) {
+            out.close();
+        }
+        System.out.printf("%d games in %.1f s: %s%n", score.getGames(), (System.nanoTime() - start) / 1e9, score);
+        if (sprt != null) {
+            int decision = score.sprt(sprt[0], sprt[1], 0.05, 0.05);
+            System.out.printf("SPRT elo0 %.1f elo1 %.1f: llr %.2f, %s%n", sprt[0], sprt[1],
+                              score.getLogLikelihoodRatio(sprt[0], sprt[1]),
+                              decision > 0 ? "H1 accepted" : decision < 0 ? "H0 accepted" : "undecided");
+        }
+    }
+
+}
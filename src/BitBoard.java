@@ -0,0 +1,766 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * BitBoard.java
+ *
+ * An alternative game board engine that packs the whole 6x6 Pentago position into two 64 bit words, one
+ * for each player's pieces. It offers the same playing API as Board (makeMove, isValidMove, getValidMoves,
+ * evaluateUtility, isWinner) but copying, mutating and testing a position never allocates, which is what
+ * the AI search needs.
+ *
+ * Cells are stored block by block: bit (block - 1) * 9 + (position - 1) holds the piece played on that
+ * position of that Block, so a single Block always occupies nine consecutive bits of each word.
+ */
+public class BitBoard {
+
+    /**
+     * Color index of the white pieces ("W").
+     */
+    public static final int WHITE = 0;
+
+    /**
+     * Color index of the black pieces ("B").
+     */
+    public static final int BLACK = 1;
+
+    /**
+     * State of a game that is still being played (see getState()).
+     */
+    public static final int ONGOING = 0;
+
+    /**
+     * State of a game white has won: white has five in a row and black does not.
+     */
+    public static final int WHITE_WINS = 1;
+
+    /**
+     * State of a game black has won: black has five in a row and white does not.
+     */
+    public static final int BLACK_WINS = 2;
+
+    /**
+     * State of a drawn game: both players have five in a row, which a rotation can make, or the board
+     * is full without either having one.
+     */
+    public static final int DRAW = 3;
+
+    /**
+     * Number of cells on the game board.
+     */
+    public static final int CELLS = 36;
+
+    /**
+     * Number of cells in a single Block.
+     */
+    public static final int BLOCK_CELLS = 9;
+
+    /**
+     * Mask covering the nine bits of a single Block once shifted down to the low bits.
+     */
+    static final long BLOCK_MASK = 0x1FFL;
+
+    /**
+     * Mask covering every cell of the board.
+     */
+    static final long BOARD_MASK = (1L << CELLS) - 1;
+
+    /**
+     * Most moves a position can have: every cell with every rotation.
+     */
+    public static final int MAX_MOVES = CELLS * 8;
+
+    /**
+     * Size of the table generateDistinctMoves() remembers children in, a power of two above MAX_MOVES.
+     */
+    private static final int CHILD_TABLE_SIZE = 512;
+
+    /**
+     * Bits of the cells holding white pieces.
+     */
+    private long myWhite;
+
+    /**
+     * Bits of the cells holding black pieces.
+     */
+    private long myBlack;
+
+    /**
+     * Zobrist hash of the position, kept up to date by every change to the board.
+     */
+    private long myHash;
+
+    /**
+     * Running evaluation kept up to date as the board changes, null when none is attached.
+     */
+    private IncrementalEvaluation myEvaluation;
+
+    /**
+     * Hashes of the children found by generateDistinctMoves(), open addressed, allocated on first use.
+     */
+    private long[] myChildHashes;
+
+    /**
+     * Hash change of turning each Block left and right, scratch space of generateDistinctMoves().
+     */
+    private long[] myTurnKeys;
+
+    /**
+     * Default constructor, creates an empty board.
+     */
+    public BitBoard() {
+        myWhite = 0L;
+        myBlack = 0L;
+        myHash = 0L;
+    }
+
+    /**
+     * Alternate constructor that creates a copy of another BitBoard.
+     *
+     * @param theBoard The board to be copied.
+     */
+    public BitBoard(BitBoard theBoard) {
+        copyFrom(theBoard);
+    }
+
+    /**
+     * Alternate constructor that converts the Block states of a Board into a BitBoard.
+     *
+     * @param theBoard The board to be converted.
+     */
+    public BitBoard(Board theBoard) {
+        for (int block = 1; block < 5; block++) {
+            String state = theBoard.getBlock(block).getState();
+            for (int pos = 1; pos < 10; pos++) {
+                char piece = state.charAt(pos - 1);
+                if (piece == 'W') {
+                    myWhite |= 1L << cellIndex(block, pos);
+                } else if (piece == 'B') {
+                    myBlack |= 1L << cellIndex(block, pos);
+                }
+            }
+        }
+        myHash = Zobrist.hashOf(myWhite, myBlack);
+    }
+
+    /**
+     * Alternate constructor that reads a position written by toString(): the states of Blocks 1 to 4 one
+     * after the other, 36 characters of 'W', 'B' or '.'.
+     *
+     * @param theState The position in text form.
+     * @throws IllegalArgumentException Thrown if the text is not a well formed position.
+     */
+    public BitBoard(String theState) throws IllegalArgumentException {
+        if (theState.length() != CELLS) {
+            throw new IllegalArgumentException("A position has " + CELLS + " cells.");
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            char piece = Character.toUpperCase(theState.charAt(cell));
+            if (piece == 'W') {
+                myWhite |= 1L << cell;
+            } else if (piece == 'B') {
+                myBlack |= 1L << cell;
+            } else if (piece != '.') {
+                throw new IllegalArgumentException("Invalid piece '" + piece + "' in position.");
+            }
+        }
+        myHash = Zobrist.hashOf(myWhite, myBlack);
+    }
+
+    /**
+     * Overwrites this board with the position held by another one without allocating.
+     *
+     * @param theBoard The board to be copied.
+     */
+    public void copyFrom(BitBoard theBoard) {
+        myWhite = theBoard.myWhite;
+        myBlack = theBoard.myBlack;
+        myHash = theBoard.myHash;
+        if (myEvaluation != null) {
+            myEvaluation.reset(this);
+        }
+    }
+
+    /**
+     * Gives the cell index used by the bit layout for a position on a Block.
+     *
+     * @param theBlockNum The Block of the board (1 - 4).
+     * @param thePos The position on the Block (1 - 9).
+     * @return The index of the cell (0 - 35).
+     */
+    public static int cellIndex(int theBlockNum, int thePos) {
+        return (theBlockNum - 1) * BLOCK_CELLS + thePos - 1;
+    }
+
+    /**
+     * Gives the cell index used by the bit layout for a row and column of the 6x6 board.
+     *
+     * @param theRow The row of the board, 0 being the top row.
+     * @param theCol The column of the board, 0 being the leftmost column.
+     * @return The index of the cell (0 - 35).
+     */
+    public static int cellAt(int theRow, int theCol) {
+        int block = (theRow / 3) * 2 + theCol / 3;
+        return block * BLOCK_CELLS + (theRow % 3) * 3 + theCol % 3;
+    }
+
+    /**
+     * Converts a player piece into its color index.
+     *
+     * @param thePlayer The player's piece, "W" or "B".
+     * @return WHITE or BLACK.
+     * @throws IllegalArgumentException Thrown if the piece is not "W" or "B".
+     */
+    public static int colorOf(String thePlayer) throws IllegalArgumentException {
+        if (thePlayer.equalsIgnoreCase("W")) {
+            return WHITE;
+        } else if (thePlayer.equalsIgnoreCase("B")) {
+            return BLACK;
+        }
+        throw new IllegalArgumentException("Invalid player piece.");
+    }
+
+    /**
+     * Converts a color index back into the player piece used by Board and Game.
+     *
+     * @param theColor WHITE or BLACK.
+     * @return "W" or "B".
+     */
+    public static String playerOf(int theColor) {
+        return theColor == WHITE ? "W" : "B";
+    }
+
+    /**
+     * Returns the bits of the cells holding the given color's pieces.
+     *
+     * @param theColor WHITE or BLACK.
+     * @return The color's bitboard.
+     */
+    public long getPieces(int theColor) {
+        return theColor == WHITE ? myWhite : myBlack;
+    }
+
+    /**
+     * Returns the bits of every occupied cell.
+     *
+     * @return The occupied cells of the board.
+     */
+    public long getOccupied() {
+        return myWhite | myBlack;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position. Equal positions always have equal hashes, and the hash is
+     * maintained as pieces are placed and Blocks rotated so reading it costs nothing.
+     *
+     * @return The 64 bit hash of the position.
+     */
+    public long hash() {
+        return myHash;
+    }
+
+    /**
+     * Returns the running evaluation attached to the board, which every change to the board is passed on
+     * to (see setEvaluation()).
+     *
+     * @return The attached evaluation, or null for none.
+     */
+    public IncrementalEvaluation getEvaluation() {
+        return myEvaluation;
+    }
+
+    /**
+     * Attaches a running evaluation to the board, or takes it off. From now on every change to the board
+     * is passed on to the evaluation.
+     *
+     * @param theEvaluation The evaluation to keep up to date, or null for none. It is reset to this board.
+     */
+    public void setEvaluation(IncrementalEvaluation theEvaluation) {
+        myEvaluation = theEvaluation;
+        if (theEvaluation != null) {
+            theEvaluation.reset(this);
+        }
+    }
+
+    /**
+     * Checks whether or not every cell of the board holds a piece.
+     *
+     * @return True if no moves are left to be played.
+     */
+    public boolean isFull() {
+        return (myWhite | myBlack) == BOARD_MASK;
+    }
+
+    /**
+     * Adds a player's piece to the specified position on a specific Block on the Board.
+     *
+     * @param theBlockNum The Block to be played on.
+     * @param thePosNum The position on the Block for the piece to be played.
+     * @param thePlayer The player's piece.
+     */
+    public void placePiece(int theBlockNum, int thePosNum, String thePlayer) {
+        placePiece(cellIndex(theBlockNum, thePosNum), colorOf(thePlayer));
+    }
+
+    /**
+     * Adds a piece of the given color to a cell of the board.
+     *
+     * @param theCell The index of the cell to be played on.
+     * @param theColor WHITE or BLACK.
+     */
+    public void placePiece(int theCell, int theColor) {
+        if (theColor == WHITE) {
+            myWhite |= 1L << theCell;
+        } else {
+            myBlack |= 1L << theCell;
+        }
+        myHash ^= Zobrist.cellKey(theColor, theCell);
+        if (myEvaluation != null) {
+            myEvaluation.cellChanged(theCell, theColor, 1);
+        }
+    }
+
+    /**
+     * Performs a full player move on the board. Adds a piece to the current board and rotates the specified
+     * block in the direction given.
+     *
+     * @param theBlockNum The block of the board to be played on.
+     * @param thePos The position on the block to be played.
+     * @param theRotNum The block of the board to be rotated.
+     * @param theDir The direction the rotating block will rotate.
+     * @param thePlayer The player's piece.
+     * @throws IllegalStateException Thrown if a move is attempted on an unplayable space on the board.
+     * @throws IllegalArgumentException Thrown if the direction provided is not "l", "L", "r", or "R", or
+     *                                  the rotating block is not 1 to 4.
+     */
+    public void makeMove(int theBlockNum, int thePos, int theRotNum,
+                         String theDir, String thePlayer) throws IllegalStateException, IllegalArgumentException {
+
+        if (!isValidMove(theBlockNum, thePos)) {
+            throw new IllegalStateException("Attempting to play move on invalid location.");
+        } else if (!theDir.equalsIgnoreCase("L") && !theDir.equalsIgnoreCase("R")) {
+            throw new IllegalArgumentException("Invalid direction operator.");
+        } else if (theRotNum < 1 || theRotNum > 4) {
+            throw new IllegalArgumentException("Invalid rotating block.");
+        }
+
+        else {
+            int direction = theDir.equalsIgnoreCase("R") ? 0x100 : 0;
+            makeMove(cellIndex(theBlockNum, thePos) | (theRotNum - 1) << 6 | direction, colorOf(thePlayer));
+        }
+
+    }
+
+    /**
+     * Plays a move in place. Together with unmakeMove() this lets a search walk the game tree on a
+     * single board instead of copying it for every child.
+     *
+     * @param theMove The move to be played.
+     * @param theColor The color of the piece being played, WHITE or BLACK.
+     * @throws IllegalStateException Thrown if the move's position is already occupied.
+     */
+    public void makeMove(Move theMove, int theColor) throws IllegalStateException {
+        makeMove(theMove.encode(), theColor);
+    }
+
+    /**
+     * Plays a packed move (see Move.encode()) in place, the way a search does.
+     *
+     * @param theMove The packed move to be played.
+     * @param theColor The color of the piece being played, WHITE or BLACK.
+     * @throws IllegalStateException Thrown if the move's position is already occupied.
+     */
+    public void makeMove(int theMove, int theColor) throws IllegalStateException {
+        int cell = theMove & 0x3F;
+        if (!isEmpty(cell)) {
+            throw new IllegalStateException("Attempting to play move on invalid location.");
+        }
+        if (myEvaluation != null) {
+            myEvaluation.save();
+        }
+        placePiece(cell, theColor);
+        rotateBlock((theMove >>> 6 & 0x3) + 1, (theMove & 0x100) != 0);
+    }
+
+    /**
+     * Takes back a move played with makeMove(). The rotation is reversed first, which puts the played
+     * piece back on its position, then that position is cleared.
+     *
+     * @param theMove The move to be taken back, which must be the last move played on this board.
+     */
+    public void unmakeMove(Move theMove) {
+        unmakeMove(theMove.encode());
+    }
+
+    /**
+     * Takes back a packed move played with makeMove().
+     *
+     * @param theMove The packed move to be taken back, which must be the last move played on this board.
+     */
+    public void unmakeMove(int theMove) {
+        // The evaluation goes back to what it saved when the move was made rather than follow along.
+        IncrementalEvaluation evaluation = myEvaluation;
+        myEvaluation = null;
+        rotateBlock((theMove >>> 6 & 0x3) + 1, (theMove & 0x100) == 0);
+        clearPiece(theMove & 0x3F);
+        myEvaluation = evaluation;
+        if (evaluation != null) {
+            evaluation.restore();
+        }
+    }
+
+    /**
+     * Removes whatever piece is on a cell of the board.
+     *
+     * @param theCell The index of the cell to be cleared.
+     */
+    public void clearPiece(int theCell) {
+        long bit = 1L << theCell;
+        if ((myWhite & bit) != 0) {
+            myWhite &= ~bit;
+            myHash ^= Zobrist.cellKey(WHITE, theCell);
+            if (myEvaluation != null) {
+                myEvaluation.cellChanged(theCell, WHITE, -1);
+            }
+        } else if ((myBlack & bit) != 0) {
+            myBlack &= ~bit;
+            myHash ^= Zobrist.cellKey(BLACK, theCell);
+            if (myEvaluation != null) {
+                myEvaluation.cellChanged(theCell, BLACK, -1);
+            }
+        }
+    }
+
+    /**
+     * Checks whether or not a position for a block is available for a player move.
+     *
+     * @param theBlockNum The block to be checked.
+     * @param thePos The position on the block to be checked.
+     * @return True if the space is open for play, False if not.
+     */
+    public boolean isValidMove(int theBlockNum, int thePos) {
+        return isEmpty(cellIndex(theBlockNum, thePos));
+    }
+
+    /**
+     * Checks whether or not a cell of the board is empty.
+     *
+     * @param theCell The index of the cell to be checked.
+     * @return True if neither player has a piece on the cell.
+     */
+    public boolean isEmpty(int theCell) {
+        return ((myWhite | myBlack) & (1L << theCell)) == 0;
+    }
+
+    /**
+     * Rotates the specified Block of the Board to the left.
+     *
+     * @param theBlockNum The number of the Block to be rotated.
+     */
+    public void rotateBlockLeft(int theBlockNum) {
+        rotateBlock(theBlockNum, false);
+    }
+
+    /**
+     * Rotates the specified Block of the Board to the right.
+     *
+     * @param theBlockNum The number of the Block to be rotated.
+     */
+    public void rotateBlockRight(int theBlockNum) {
+        rotateBlock(theBlockNum, true);
+    }
+
+    /**
+     * Rotates a Block through the Rotation tables and updates the hash for the nine cells of that Block.
+     *
+     * @param theBlockNum The number of the Block to be rotated.
+     * @param isRight True to rotate to the right, false to rotate to the left.
+     */
+    private void rotateBlock(int theBlockNum, boolean isRight) {
+        int shift = (theBlockNum - 1) * BLOCK_CELLS;
+        int white = (int) ((myWhite >>> shift) & BLOCK_MASK);
+        int black = (int) ((myBlack >>> shift) & BLOCK_MASK);
+        int newWhite = isRight ? Rotation.rotateRight(white) : Rotation.rotateLeft(white);
+        int newBlack = isRight ? Rotation.rotateRight(black) : Rotation.rotateLeft(black);
+
+        myWhite = (myWhite & ~(BLOCK_MASK << shift)) | ((long) newWhite << shift);
+        myBlack = (myBlack & ~(BLOCK_MASK << shift)) | ((long) newBlack << shift);
+        myHash ^= Zobrist.blockKey(WHITE, theBlockNum, white) ^ Zobrist.blockKey(WHITE, theBlockNum, newWhite)
+                ^ Zobrist.blockKey(BLACK, theBlockNum, black) ^ Zobrist.blockKey(BLACK, theBlockNum, newBlack);
+        if (myEvaluation != null) {
+            long changed = (long) ((white ^ newWhite) | (black ^ newBlack)) << shift;
+            if (changed != 0) {
+                myEvaluation.blockRotated(this, theBlockNum, changed);
+            }
+        }
+    }
+
+    /**
+     * Generates a list of all possible playing options a player could make given the current state of the
+     * board, in the same order as Board.getValidMoves().
+     *
+     * @return A list Move objects that are all valid options to play on.
+     */
+    public ArrayList<Move> getValidMoves() {
+        int[] moves = new int[MAX_MOVES];
+        int count = generateMoves(moves);
+        ArrayList<Move> moveList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moveList.add(Move.decode(moves[i]));
+        }
+        return moveList;
+    }
+
+    /**
+     * Writes every possible move, packed (see Move.encode()), into a buffer the caller owns, in the same
+     * order as getValidMoves(). Nothing is allocated, so a search can keep one buffer per ply.
+     *
+     * @param theMoves The buffer to fill, with room for MAX_MOVES moves.
+     * @return The number of moves written.
+     */
+    public int generateMoves(int[] theMoves) {
+        int count = 0;
+        long empty = ~(myWhite | myBlack) & BOARD_MASK;
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            for (int rotation = 0; rotation < 0x100; rotation += 0x40) {
+                theMoves[count++] = cell | rotation;
+                theMoves[count++] = cell | rotation | 0x100;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes one packed move for each distinct position the player to move can reach. Many moves lead to
+     * the same position: rotating a Block that looks the same after a quarter turn (an empty Block, for
+     * one) changes nothing, so all such moves on a cell are one move, and turning a Block that looks the
+     * same after a half turn gives the same position either way. Each child's hash is worked out from
+     * the Zobrist keys without playing the move, and only the first move reaching each hash is kept, in
+     * the order of generateMoves().
+     *
+     * @param theMoves The buffer to fill, with room for MAX_MOVES moves.
+     * @param theColor The color of the player to move.
+     * @return The number of moves written.
+     */
+    public int generateDistinctMoves(int[] theMoves, int theColor) {
+        if (myChildHashes == null) {
+            myChildHashes = new long[CHILD_TABLE_SIZE];
+            myTurnKeys = new long[8];
+        } else {
+            Arrays.fill(myChildHashes, 0L);
+        }
+
+        // How turning each Block either way changes the hash, for cells outside the Block.
+        long[] turns = myTurnKeys;
+        for (int block = 1; block < 5; block++) {
+            turns[(block - 1) * 2] = rotationKey(myWhite, myBlack, block, false);
+            turns[(block - 1) * 2 + 1] = rotationKey(myWhite, myBlack, block, true);
+        }
+
+        int count = 0;
+        long empty = ~(myWhite | myBlack) & BOARD_MASK;
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            int cellBlock = cell / BLOCK_CELLS + 1;
+            long placed = myHash ^ Zobrist.cellKey(theColor, cell);
+            for (int block = 1; block < 5; block++) {
+                int move = cell | (block - 1) << 6;
+                if (block == cellBlock) {
+                    long white = theColor == WHITE ? myWhite | 1L << cell : myWhite;
+                    long black = theColor == BLACK ? myBlack | 1L << cell : myBlack;
+                    long left = placed ^ rotationKey(white, black, block, false);
+                    long right = placed ^ rotationKey(white, black, block, true);
+                    if (addChild(left)) {
+                        theMoves[count++] = move;
+                    }
+                    if (right != left && addChild(right)) {
+                        theMoves[count++] = move | 0x100;
+                    }
+                } else if (turns[(block - 1) * 2] == 0) {
+                    // The Block looks the same after a quarter turn, so the move only places the piece.
+                    if (addChild(placed)) {
+                        theMoves[count++] = move;
+                    }
+                } else {
+                    // Turning a Block without the new piece in it leads to a position no other move can
+                    // reach, so only the two directions need comparing.
+                    theMoves[count++] = move;
+                    if (turns[(block - 1) * 2 + 1] != turns[(block - 1) * 2]) {
+                        theMoves[count++] = move | 0x100;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Works out how rotating a Block changes the hash of a position.
+     *
+     * @param theWhite The white pieces' bitboard.
+     * @param theBlack The black pieces' bitboard.
+     * @param theBlockNum The Block to rotate (1 - 4).
+     * @param isRight True for a clockwise rotation.
+     * @return The keys to XOR into the hash, 0 if the rotation changes nothing.
+     */
+    private static long rotationKey(long theWhite, long theBlack, int theBlockNum, boolean isRight) {
+        int shift = (theBlockNum - 1) * BLOCK_CELLS;
+        int white = (int) ((theWhite >>> shift) & BLOCK_MASK);
+        int black = (int) ((theBlack >>> shift) & BLOCK_MASK);
+        int newWhite = isRight ? Rotation.rotateRight(white) : Rotation.rotateLeft(white);
+        int newBlack = isRight ? Rotation.rotateRight(black) : Rotation.rotateLeft(black);
+        return Zobrist.blockKey(WHITE, theBlockNum, white) ^ Zobrist.blockKey(WHITE, theBlockNum, newWhite)
+               ^ Zobrist.blockKey(BLACK, theBlockNum, black) ^ Zobrist.blockKey(BLACK, theBlockNum, newBlack);
+    }
+
+    /**
+     * Remembers the hash of a child for generateDistinctMoves().
+     *
+     * @param theHash The hash of the child, never 0 since a child holds at least one piece.
+     * @return True if no child with the hash was found before.
+     */
+    private boolean addChild(long theHash) {
+        int index = (int) (theHash ^ theHash >>> 32) & (CHILD_TABLE_SIZE - 1);
+        while (myChildHashes[index] != 0) {
+            if (myChildHashes[index] == theHash) {
+                return false;
+            }
+            index = (index + 1) & (CHILD_TABLE_SIZE - 1);
+        }
+        myChildHashes[index] = theHash;
+        return true;
+    }
+
+    /**
+     * Checks the current state of the game board and returns the utility, the longest streak of the
+     * player's pieces along a row, column or diagonal. Gives the same values as Board.evaluateUtility().
+     *
+     * @param thePlayer The player we are currently evaluating the board for.
+     * @return An integer value representing the longest streak for the current player on the board.
+     */
+    public int evaluateUtility(String thePlayer) {
+        return evaluateUtility(colorOf(thePlayer));
+    }
+
+    /**
+     * Returns the longest streak of the given color's pieces, see evaluateUtility(String).
+     *
+     * @param theColor WHITE or BLACK.
+     * @return An integer value representing the longest streak for the color on the board.
+     */
+    public int evaluateUtility(int theColor) {
+        return WinLines.longestStreak(getPieces(theColor));
+    }
+
+    /**
+     * Checks to see if the current state of the board has made someone a winner.
+     *
+     * @param thePlayer The player we are checking the win state for.
+     * @return True if the player has won the game, false if not.
+     */
+    public boolean isWinner(String thePlayer) {
+        return isWinner(colorOf(thePlayer));
+    }
+
+    /**
+     * Finds out whether the game is over and how it ended, looking at both players' lines at once.
+     *
+     * @return ONGOING, WHITE_WINS, BLACK_WINS or DRAW.
+     */
+    public int getState() {
+        return WinLines.gameState(myWhite, myBlack);
+    }
+
+    /**
+     * Gives the state of a game won by a color.
+     *
+     * @param theColor WHITE or BLACK.
+     * @return WHITE_WINS or BLACK_WINS.
+     */
+    public static int winsOf(int theColor) {
+        return theColor == WHITE ? WHITE_WINS : BLACK_WINS;
+    }
+
+    /**
+     * Checks to see if the given color has five pieces in a row.
+     *
+     * @param theColor WHITE or BLACK.
+     * @return True if the color has won the game, false if not.
+     */
+    public boolean isWinner(int theColor) {
+        return WinLines.hasFive(getPieces(theColor));
+    }
+
+    /**
+     * Builds the String state of one Block in the format used by Block.getState().
+     *
+     * @param theBlockNum The Block to describe.
+     * @return Nine characters, 'W', 'B' or '.' for each position of the Block.
+     */
+    public String getBlockState(int theBlockNum) {
+        char[] state = new char[BLOCK_CELLS];
+        for (int pos = 1; pos < 10; pos++) {
+            state[pos - 1] = pieceAt(cellIndex(theBlockNum, pos));
+        }
+        return new String(state);
+    }
+
+    /**
+     * Converts this position into a String based Board.
+     *
+     * @return A new Board holding the same pieces.
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (int block = 1; block < 5; block++) {
+            board.getBlock(block).setState(getBlockState(block));
+        }
+        return board;
+    }
+
+    /**
+     * Prints a representation of the current board state to console.
+     */
+    public void printBoard() {
+        toBoard().printBoard();
+    }
+
+    /**
+     * Gives the character printed for a cell of the board.
+     *
+     * @param theCell The index of the cell.
+     * @return 'W', 'B' or '.' for an empty cell.
+     */
+    private char pieceAt(int theCell) {
+        long bit = 1L << theCell;
+        if ((myWhite & bit) != 0) {
+            return 'W';
+        } else if ((myBlack & bit) != 0) {
+            return 'B';
+        }
+        return '.';
+    }
+
+    @Override
+    public boolean equals(Object theOther) {
+        if (!(theOther instanceof BitBoard)) {
+            return false;
+        }
+        BitBoard other = (BitBoard) theOther;
+        return myWhite == other.myWhite && myBlack == other.myBlack;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(myHash);
+    }
+
+    @Override
+    public String toString() {
+        return getBlockState(1) + getBlockState(2) + getBlockState(3) + getBlockState(4);
+    }
+
+}
@@ -120,6 +120,32 @@ public class Board {
 
     }
 
+    /**
+     * Plays a move in place, see makeMove(int, int, int, String, String).
+     *
+     * @param theMove The move to be played.
+     * @param thePlayer The player's piece.
+     */
+    public void makeMove(Move theMove, String thePlayer) {
+        makeMove(theMove.getPlayBlock(), theMove.getPosition(), theMove.getRotatingBlock(),
+                 theMove.getDirection(), thePlayer);
+    }
+
+    /**
+     * Takes back a move played with makeMove(). The rotation is reversed first, which puts the played
+     * piece back on its position, then that position is emptied.
+     *
+     * @param theMove The move to be taken back, which must be the last move played on this board.
+     */
+    public void unmakeMove(Move theMove) {
+        if (theMove.getDirection().equalsIgnoreCase("R")) {
+            rotateBlockLeft(theMove.getRotatingBlock());
+        } else {
+            rotateBlockRight(theMove.getRotatingBlock());
+        }
+        getBlock(theMove.getPlayBlock()).updateBlock(theMove.getPosition(), ".");
+    }
+
     /**
      * Checks whether or not a position for a block is available for a player move.
      *
@@ -216,206 +242,36 @@ public class Board {
      * Checks the current state of the game board and returns the utility.
      * Used by the AI to make decisions on what move to make, the board is checked for
      * streaks of pieces for the current player, where the higher the streak, the better the,
-     * utility. The maximum utility that can be had is 6 for a board containing a full line on
-     * one of the main diagonals, though a utility value of 5 is a board where any winning
-     * move has been played.
+     * utility. The maximum utility that can be had is 6 for a board containing a full row or
+     * column, though a utility value of 5 is a board where any winning move has been played.
+     * Streaks are found with the precomputed masks of WinLines, without allocating.
      *
      * @param thePlayer The player we are currently evaluating the board for.
      * @return An integer value representing the longest streak for the current player on the board.
      */
     public int evaluateUtility(String thePlayer) {
-        int max = 0;
-        // Check horizontal lines.
-        max = checkHorizontalLines(thePlayer, 0, 3, max);
-        max = checkHorizontalLines(thePlayer, 3, 6, max);
-        max = checkHorizontalLines(thePlayer, 6, 9, max);
-
-        // Check vertical lines.
-        max = checkVerticalLines(thePlayer, 0, 7, max);
-        max = checkVerticalLines(thePlayer, 1, 8, max);
-        max = checkVerticalLines(thePlayer, 2, 9, max);
-
-        // Check diagonal lines.
-        max = checkDiagonalLines(thePlayer, max);
-
-        return max;
+        return WinLines.longestStreak(getPieces(thePlayer));
     }
 
     /**
-     * Checks an individual position on the game board to see if it matches a current player's piece.
-     * Used when evaluating the utility of the game board, a current and max streak are passed into
-     * the method and are updated appropriately inside.
+     * Collects a player's pieces into a bitboard in the cell layout of BitBoard, so the precomputed
+     * WinLines masks can be used on this Board.
      *
-     * @param thePlayer The current player who we are evaluating the board for.
-     * @param theState The current state of a block on the game board.
-     * @param thePosition The position on the block on the game board.
-     * @param theStreak The current streak going into the method.
-     * @param theMax The max streak going into the method.
-     * @return An integer array containing the new current streak and max streak.
+     * @param thePlayer The player whose pieces are collected.
+     * @return A bitboard with a bit set for each of the player's pieces.
      */
-    private int[] checkPosition(String thePlayer, char[] theState, int thePosition, int theStreak, int theMax) {
-        int currStreak = theStreak;
-        int maxStreak = theMax;
-        if (theState[thePosition] == thePlayer.charAt(0)) {
-            currStreak++;
-            if (currStreak > maxStreak) {
-                maxStreak = currStreak;
-            }
-        } else {
-            currStreak = 0;
-        }
-
-        return new int[] {currStreak, maxStreak};
-    }
-
-    /**
-     * Checks horizontal lines on the game board to evaluate the utility of the game for the
-     * player who has the current turn. Given a start and ending index, checks two lines on the board,
-     * one line in the top half and one line on the bottom half. Appropriate values for theStart and theEnd
-     * would be (0,3) to check lines 1 and 4, (3, 6) to check lines 2 and 5, and (6, 9) to check
-     * lines 3 and 6.
-     *
-     * @param thePlayer The current player we are evaluating the board for.
-     * @param theStart The starting index of the blocks to check.
-     * @param theEnd The ending index of the blocks to check.
-     * @param theMax The current max streak going into the method.
-     * @return An updated max streak value after checking for new streaks.
-     */
-    private int checkHorizontalLines(String thePlayer, int theStart, int theEnd, int theMax) {
-        int currStreak = 0;
-        int currMax = theMax;
-        int[] result;
-        char[] b1 = myBlock1.getState().toCharArray();
-        char[] b2 = myBlock2.getState().toCharArray();
-        char[] b3 = myBlock3.getState().toCharArray();
-        char[] b4 = myBlock4.getState().toCharArray();
-
-        // Checking horizontal line on top half of board.
-        for (int i = theStart; i < theEnd; i++) {
-            result = checkPosition(thePlayer, b1, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-        for (int i = theStart; i < theEnd; i++) {
-            result = checkPosition(thePlayer, b2, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-        currStreak = 0;  // Checking new line on bottom half of board, reset streak.
-        for (int i = theStart; i < theEnd; i++) {
-            result = checkPosition(thePlayer, b3, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-        for (int i = theStart; i < theEnd; i++) {
-            result = checkPosition(thePlayer, b4, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-
-        return currMax;
-    }
-
-    /**
-     * Checks vertical lines on the game board to evaluate the utility of the game for the
-     * player who has the current turn. Given a start and ending index, checks two lines on the board,
-     * one line in the left half and one line on the right half. Appropriate values for theStart and theEnd
-     * would be (0,7) to check lines v1 and v4, (1, 8) to check lines v2 and v5, and (2, 9) to check
-     * lines v3 and v6.
-     *
-     * @param thePlayer The current player we are evaluating the board for.
-     * @param theStart The starting index of the blocks to check.
-     * @param theEnd The ending index of the blocks to check.
-     * @param theMax The current max streak going into the method.
-     * @return An updated max streak value after checking for new streaks.
-     */
-    private int checkVerticalLines(String thePlayer, int theStart, int theEnd, int theMax) {
-        int currStreak = 0;
-        int currMax = theMax;
-        int[] result;
-        char[] b1 = myBlock1.getState().toCharArray();
-        char[] b2 = myBlock2.getState().toCharArray();
-        char[] b3 = myBlock3.getState().toCharArray();
-        char[] b4 = myBlock4.getState().toCharArray();
-
-        // Checking vertical line on top half of board.
-        for (int i = theStart; i < theEnd; i += 3) {
-            result = checkPosition(thePlayer, b1, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-        for (int i = theStart; i < theEnd; i += 3) {
-            result = checkPosition(thePlayer, b3, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-        currStreak = 0;  // Checking new line on right half of board, reset streak.
-        for (int i = theStart; i < theEnd; i += 3) {
-            result = checkPosition(thePlayer, b2, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-        for (int i = theStart; i < theEnd; i += 3) {
-            result = checkPosition(thePlayer, b4, i, currStreak, currMax);
-            currStreak = result[0];
-            currMax = result[1];
-        }
-
-        return currMax;
-    }
-
-    /**
-     * Checks diagonal lines on the game board to evaluate the utility of the game for the
-     * player who has the current turn.
-     *
-     * @param thePlayer The current player we are evaluating the board for.
-     * @param theMax The current max streak going into the method.
-     * @return An updated max streak value after checking for new streaks.
-     */
-    private int checkDiagonalLines(String thePlayer, int theMax) {
-        // Anonymous inner class to help pass (state, index) tuples to the checkPosition method in loops.
-        class Tuple {
-            private char[] myState;
-            private int myPos;
-
-            private Tuple(char[] theState, int thePos) {
-                myState = theState;
-                myPos = thePos;
-            }
-        }
-
-        int currStreak;
-        int currMax = theMax;
-        int[] result;
-        ArrayList<Tuple[]> diagList = new ArrayList<>();
-        char[] b1 = myBlock1.getState().toCharArray();
-        char[] b2 = myBlock2.getState().toCharArray();
-        char[] b3 = myBlock3.getState().toCharArray();
-        char[] b4 = myBlock4.getState().toCharArray();
-
-        // Add the eight diagonal lines you can win on to the list.
-        // Utilizes the anonymous Tuple class to pair the state and index pairs to pass into helper methods later.
-        // Unlike the horizontal and vertical lines, the diagonals have no pretty way to increment through
-        // and add the lines as they appear on the board. It looks ugly, I know.
-        diagList.add(new Tuple[] {new Tuple(b1, 3), new Tuple(b1, 7), new Tuple(b3, 2), new Tuple(b4, 3), new Tuple(b4, 7)});
-        diagList.add(new Tuple[] {new Tuple(b1, 0), new Tuple(b1, 4), new Tuple(b1, 8), new Tuple(b4, 0), new Tuple(b4, 4)});
-        diagList.add(new Tuple[] {new Tuple(b1, 4), new Tuple(b1, 8), new Tuple(b4, 0), new Tuple(b4, 4), new Tuple(b4, 8)});
-        diagList.add(new Tuple[] {new Tuple(b1, 1), new Tuple(b1, 5), new Tuple(b2, 6), new Tuple(b4, 1), new Tuple(b4, 5)});
-        diagList.add(new Tuple[] {new Tuple(b2, 1), new Tuple(b2, 3), new Tuple(b1, 8), new Tuple(b3, 1), new Tuple(b3, 3)});
-        diagList.add(new Tuple[] {new Tuple(b2, 2), new Tuple(b2, 4), new Tuple(b2, 6), new Tuple(b3, 2), new Tuple(b3, 4)});
-        diagList.add(new Tuple[] {new Tuple(b2, 4), new Tuple(b2, 6), new Tuple(b3, 2), new Tuple(b3, 4), new Tuple(b3, 6)});
-        diagList.add(new Tuple[] {new Tuple(b2, 5), new Tuple(b2, 7), new Tuple(b4, 0), new Tuple(b3, 5), new Tuple(b3, 7)});
-
-        for (Tuple[] line : diagList) {
-            currStreak = 0;
-            for (Tuple position : line) {
-                result = checkPosition(thePlayer, position.myState, position.myPos, currStreak, currMax);
-                currStreak = result[0];
-                currMax = result[1];
+    private long getPieces(String thePlayer) {
+        char piece = thePlayer.charAt(0);
+        long bits = 0L;
+        for (int block = 1; block < 5; block++) {
+            String state = getBlock(block).getState();
+            for (int i = 0; i < 9; i++) {
+                if (state.charAt(i) == piece) {
+                    bits |= 1L << ((block - 1) * 9 + i);
+                }
             }
         }
-
-        return currMax;
+        return bits;
     }
 
     /**
@@ -426,7 +282,17 @@ public class Board {
      * @return True if the player has won the game, false if not.
      */
     public boolean isWinner(String thePlayer) {
-        return (evaluateUtility(thePlayer) >= 5);
+        return WinLines.hasFive(getPieces(thePlayer));
+    }
+
+    /**
+     * Finds out whether the game is over and how it ended. A rotation can give both players five in a
+     * row at once, which is a draw, as is a full board without five in a row.
+     *
+     * @return BitBoard.ONGOING, BitBoard.WHITE_WINS, BitBoard.BLACK_WINS or BitBoard.DRAW.
+     */
+    public int getState() {
+        return WinLines.gameState(getPieces("W"), getPieces("B"));
     }
 
     /**
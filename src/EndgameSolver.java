@@ -0,0 +1,262 @@
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * EndgameSolver.java
+ *
+ * Exact search of positions with few empty cells left. Instead of scoring leaves with an Evaluator at a
+ * fixed depth, the solver plays every line out to the end of the game and proves whether the player to
+ * move wins, draws or loses. A game ends when a player has five in a row, or the board is full, which
+ * is a draw. Five in a row for both players at once, which a rotation can make, is a draw too.
+ *
+ * With only three values an alpha beta window cuts off far more than with evaluation scores, and a move
+ * that wins on the spot is looked for before any move is searched deeper. Proven results go to a table
+ * of the solver's own, one long per entry: the upper 48 bits of the position's key with the value,
+ * bound and best move packed into the lower 16 bits.
+ *
+ * A solver is single threaded. It gives up, returning no result, when its time or node budget runs out
+ * or it is asked to stop.
+ */
+public class EndgameSolver {
+
+    /**
+     * Values of a solved position, for the player to move.
+     */
+    public static final int WIN = 1;
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    /**
+     * Size of the solver's table when none is configured, in megabytes.
+     */
+    public static final int DEFAULT_SIZE_MB = 8;
+
+    /* Number of nodes searched between two looks at the clock. */
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    /* Bits of an entry holding the position's key. */
+    private static final long KEY_MASK = ~0xFFFFL;
+
+    /* One long per entry, 0 for an empty slot. */
+    private final long[] myTable;
+
+    /* Number of entries minus one, used to map a key to its entry. */
+    private final int myIndexMask;
+
+    /* Move buffer of each ply. */
+    private final int[][] myMoves = new int[BitBoard.CELLS + 1][BitBoard.MAX_MOVES];
+
+    /* Number of positions visited by the last solve. */
+    private long myNodes;
+
+    /* Limits of the current solve. */
+    private long myNodeLimit;
+    private long myDeadline;
+    private BooleanSupplier myStop;
+
+    /* Set once a limit is reached; the solve is then abandoned. */
+    private boolean myAborted;
+
+    /* Best move found for the root position. */
+    private int myBestMove;
+
+    /**
+     * Default constructor, creates a table of DEFAULT_SIZE_MB megabytes.
+     */
+    public EndgameSolver() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a solver whose table uses at most the given amount of memory.
+     *
+     * @param theSizeMb The memory the table may use, in megabytes.
+     * @throws IllegalArgumentException Thrown if the size is less than one megabyte.
+     */
+    public EndgameSolver(int theSizeMb) throws IllegalArgumentException {
+        if (theSizeMb < 1) {
+            throw new IllegalArgumentException("Endgame table size must be at least 1 MB.");
+        }
+        long entries = Math.min(Long.highestOneBit((long) theSizeMb * 1024 * 1024 / 8), 1 << 30);
+        myTable = new long[(int) entries];
+        myIndexMask = (int) entries - 1;
+    }
+
+    /**
+     * Solves a position without limits.
+     *
+     * @param theBoard The position. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @return The best move with its value (WIN, DRAW or LOSS) and the number of empty cells as depth;
+     *         the move is null if the game is already over.
+     */
+    public SearchResult solve(BitBoard theBoard, int theColor) {
+        return solve(theBoard, theColor, Long.MAX_VALUE, Long.MAX_VALUE, () -> false);
+    }
+
+    /**
+     * Solves a position within a time and node budget.
+     *
+     * @param theBoard The position. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theTimeNanos The time the solve may take, in nanoseconds, Long.MAX_VALUE for no limit.
+     * @param theNodes The most positions to visit, Long.MAX_VALUE for no limit.
+     * @param theStop Asked now and then whether to give up.
+     * @return The best move with its value (WIN, DRAW or LOSS) and the number of empty cells as depth,
+     *         the move being null if the game is already over, or null if the solve gave up.
+     */
+    public SearchResult solve(BitBoard theBoard, int theColor, long theTimeNanos, long theNodes,
+                              BooleanSupplier theStop) {
+        long start = System.nanoTime();
+        myDeadline = theTimeNanos == Long.MAX_VALUE ? Long.MAX_VALUE : start + theTimeNanos;
+        myNodeLimit = theNodes;
+        myStop = theStop;
+        myNodes = 0;
+        myAborted = false;
+        myBestMove = -1;
+
+        // A copy, so no evaluation attached to the board follows the solver's moves.
+        BitBoard board = new BitBoard(theBoard);
+        int value = solve(board, theColor, LOSS, WIN, 0);
+        if (myAborted) {
+            return null;
+        }
+        int empty = BitBoard.CELLS - Long.bitCount(board.getOccupied());
+        return new SearchResult(myBestMove >= 0 ? Move.decode(myBestMove) : null, value, empty);
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        Arrays.fill(myTable, 0L);
+    }
+
+    public long getNodes() {
+        return myNodes;
+    }
+
+    /**
+     * Proves the value of a position.
+     *
+     * @param theBoard The position. It is played on but restored.
+     * @param theColor The color of the player to move.
+     * @param theAlpha The value the player to move is already guaranteed.
+     * @param theBeta The value the opponent is already guaranteed, as seen by the player to move.
+     * @param thePly The distance from the root.
+     * @return The value of the position for the player to move, exact if it lies inside the window.
+     */
+    private int solve(BitBoard theBoard, int theColor, int theAlpha, int theBeta, int thePly) {
+        myNodes++;
+        if ((myNodes & (CLOCK_CHECK_INTERVAL - 1)) == 0
+            && (myNodes >= myNodeLimit || System.nanoTime() >= myDeadline || myStop.getAsBoolean())) {
+            myAborted = true;
+        }
+        if (myAborted) {
+            return DRAW;
+        }
+
+        int state = theBoard.getState();
+        if (state == BitBoard.DRAW) {
+            return DRAW;
+        } else if (state != BitBoard.ONGOING) {
+            return state == BitBoard.winsOf(theColor) ? WIN : LOSS;
+        }
+
+        long key = theColor == BitBoard.BLACK ? theBoard.hash() ^ Zobrist.SIDE_KEY : theBoard.hash();
+        int index = (int) key & myIndexMask;
+        long entry = myTable[index];
+        int tableMove = -1;
+        if (entry != 0 && (entry & KEY_MASK) == (key & KEY_MASK)) {
+            int value = valueOf(entry);
+            int bound = (int) (entry >>> 10 & 0x3);
+            if (thePly > 0 && (bound == TranspositionTable.EXACT
+                               || (bound == TranspositionTable.LOWER && value >= theBeta)
+                               || (bound == TranspositionTable.UPPER && value <= theAlpha))) {
+                return value;
+            }
+            tableMove = (int) (entry & 0x3FF) - 1;
+        }
+
+        // A move making five in a row for the mover alone wins on the spot, so look for one first. Moves
+        // that only make five for the opponent lose on the spot and go last.
+        int[] moves = myMoves[thePly];
+        int count = theBoard.generateDistinctMoves(moves, theColor);
+        int losing = count;
+        for (int i = 0; i < losing; i++) {
+            int move = moves[i];
+            theBoard.makeMove(move, theColor);
+            int after = theBoard.getState();
+            theBoard.unmakeMove(move);
+            if (after == BitBoard.winsOf(theColor)) {
+                store(index, key, WIN, TranspositionTable.EXACT, move);
+                if (thePly == 0) {
+                    myBestMove = move;
+                }
+                return WIN;
+            } else if (after == BitBoard.winsOf(1 - theColor)) {
+                moves[i--] = moves[--losing];
+                moves[losing] = move;
+            } else if (move == tableMove) {
+                moves[i] = moves[0];
+                moves[0] = move;
+            }
+        }
+
+        int alpha = theAlpha;
+        int bestValue = LOSS - 1;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            theBoard.makeMove(move, theColor);
+            int value = -solve(theBoard, 1 - theColor, -theBeta, -alpha, thePly + 1);
+            theBoard.unmakeMove(move);
+            if (myAborted) {
+                return DRAW;
+            }
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = move;
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= theBeta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestValue <= theAlpha ? TranspositionTable.UPPER
+                  : bestValue >= theBeta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        store(index, key, bestValue, bound, bestMove);
+        if (thePly == 0) {
+            myBestMove = bestMove;
+        }
+        return bestValue;
+    }
+
+    /**
+     * Writes a result to the table, replacing whatever the slot held.
+     *
+     * @param theIndex The slot.
+     * @param theKey The key of the position.
+     * @param theValue WIN, DRAW or LOSS.
+     * @param theBound TranspositionTable.EXACT, LOWER or UPPER.
+     * @param theMove The packed best move.
+     */
+    private void store(int theIndex, long theKey, int theValue, int theBound, int theMove) {
+        myTable[theIndex] = (theKey & KEY_MASK) | (long) (theValue + 1) << 12 | (long) theBound << 10
+                            | (theMove + 1);
+    }
+
+    /**
+     * Reads the value of a table entry.
+     *
+     * @param theEntry The entry.
+     * @return WIN, DRAW or LOSS.
+     */
+    private static int valueOf(long theEntry) {
+        return (int) (theEntry >>> 12 & 0x3) - 1;
+    }
+
+}
@@ -0,0 +1,198 @@
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Engine.java
+ *
+ * Headless access to the computer player, for programs that embed it rather than play through Game.
+ * A caller hands in a position, the player to move and SearchLimits, and gets back the best move, its
+ * score, the principal variation and search statistics.
+ *
+ * An Engine may be called from any number of threads at once. Each call searches on its own
+ * SearchEngine, taken from a pool of idle engines, and all calls share one lock-free
+ * TranspositionTable, so analyses of related positions speed each other up.
+ */
+public class Engine {
+
+    /* The settings searches are made with. */
+    private EngineConfig myConfig;
+
+    /* The table shared by every search. */
+    private TranspositionTable myTable;
+
+    /* The evaluation shared by every search. */
+    private Evaluator myEvaluator;
+
+    /* Moves of the opening positions, answered without a search. */
+    private OpeningBook myBook;
+
+    /* Results shared with other processes through a file, or null for none. */
+    private PositionCache myCache;
+
+    /* Engines not searching right now, reused by later calls. */
+    private ConcurrentLinkedQueue<SearchEngine> myIdle = new ConcurrentLinkedQueue<>();
+
+    /* Engines searching right now, so stop() can reach them. Guarded by its own lock. */
+    private final Set<SearchEngine> myRunning = new HashSet<>();
+
+    /**
+     * Default constructor, uses the default settings.
+     */
+    public Engine() {
+        this(new EngineConfig());
+    }
+
+    /**
+     * Creates an engine with the given settings. The table size, symmetry, random tie breaking,
+     * evaluation weights, opening book, position cache and endgame solver are taken from them; the time
+     * budget and depth are given per call instead.
+     *
+     * @param theConfig The engine settings.
+     */
+    public Engine(EngineConfig theConfig) {
+        myConfig = theConfig;
+        myTable = new TranspositionTable(theConfig.getTableSizeMb());
+        myEvaluator = new PatternEvaluator(theConfig);
+        myBook = theConfig.getBookFile().isEmpty() ? new OpeningBook() : OpeningBook.load(theConfig.getBookFile());
+        if (!theConfig.getCacheFile().isEmpty()) {
+            myCache = new PositionCache(theConfig.getCacheFile(), theConfig.getCacheSizeMb());
+        }
+    }
+
+    /**
+     * Analyzes a position given in text form.
+     *
+     * @param thePosition The position as written by BitBoard.toString(): the states of Blocks 1 to 4,
+     *                    36 characters of 'W', 'B' or '.'.
+     * @param thePlayer The player to move, "W" or "B".
+     * @param theLimits How long to search.
+     * @return The outcome of the search.
+     * @throws IllegalArgumentException Thrown if the position or the player is not well formed.
+     */
+    public EngineResult analyze(String thePosition, String thePlayer, SearchLimits theLimits)
+            throws IllegalArgumentException {
+        return analyze(new BitBoard(thePosition), BitBoard.colorOf(thePlayer), theLimits);
+    }
+
+    /**
+     * Analyzes a position.
+     *
+     * @param theBoard The position. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theLimits How long to search.
+     * @return The outcome of the search.
+     */
+    public EngineResult analyze(BitBoard theBoard, int theColor, SearchLimits theLimits) {
+        return analyze(theBoard, theColor, theLimits, null);
+    }
+
+    /**
+     * Analyzes a position, reporting each completed iteration of the search as it goes.
+     *
+     * @param theBoard The position. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theLimits How long to search.
+     * @param theListener Told about every completed iteration on the calling thread, or null.
+     * @return The outcome of the search, with the engine's SearchStats. A position in the opening book
+     *         is answered from the book without searching, with a depth, score and statistics of 0.
+     */
+    public EngineResult analyze(BitBoard theBoard, int theColor, SearchLimits theLimits,
+                                SearchListener theListener) {
+        Move book = myBook.lookup(theBoard, theColor);
+        if (book != null) {
+            return new EngineResult(new SearchResult(book, 0, 0), Collections.singletonList(book),
+                                    new SearchStats(0, 0, 0, 0, 0, 0, 0));
+        }
+        SearchEngine engine = myIdle.poll();
+        if (engine == null) {
+            engine = createSearchEngine();
+        }
+        synchronized (myRunning) {
+            // The table ages once per batch of overlapping searches: a new generation for every caller
+            // would make the deep entries of searches still running look old and let shallow ones replace
+            // them.
+            if (myRunning.isEmpty()) {
+                myTable.newSearch();
+            }
+            myRunning.add(engine);
+        }
+        try {
+            engine.setNodeLimit(theLimits.getNodes());
+            engine.setListener(theListener);
+            SearchResult result = engine.searchTimed(new BitBoard(theBoard), theColor,
+                                                     theLimits.getTimeMillis(), theLimits.getDepth());
+            List<Move> line = engine.getPrincipalVariation(theBoard, theColor, result.getMove(),
+                                                           result.getDepth());
+            return new EngineResult(result, line, engine.getStats());
+        } finally {
+            engine.setListener(null);
+            synchronized (myRunning) {
+                myRunning.remove(engine);
+                engine.clearStop();
+            }
+            myIdle.add(engine);
+        }
+    }
+
+    /**
+     * Asks every search in progress to stop. Each returns as soon as possible with the result of its
+     * last completed iteration.
+     */
+    public void stop() {
+        synchronized (myRunning) {
+            for (SearchEngine engine : myRunning) {
+                engine.stop();
+            }
+        }
+    }
+
+    /**
+     * Forgets everything learned from earlier searches, for example when a new game starts. The position
+     * cache, shared with other processes, is kept.
+     */
+    public void clear() {
+        myTable.clear();
+    }
+
+    /**
+     * Replaces the opening book.
+     *
+     * @param theBook The book to answer opening positions from, empty for none.
+     */
+    public void setBook(OpeningBook theBook) {
+        myBook = theBook;
+    }
+
+    public TranspositionTable getTable() {
+        return myTable;
+    }
+
+    public PositionCache getCache() {
+        return myCache;
+    }
+
+    /**
+     * Creates a search engine for the pool. It runs as a worker (see SearchEngine), so it neither clears
+     * stop requests nor ages the table on its own: analyze() clears a stop when the engine goes back to
+     * the pool, so one made once the engine is running is never lost, and ages the table once per batch
+     * of overlapping searches.
+     *
+     * @return A new search engine.
+     */
+    private SearchEngine createSearchEngine() {
+        SearchEngine engine = new SearchEngine(myTable, 0);
+        engine.setUseSymmetry(myConfig.isSymmetryEnabled());
+        engine.setMoveOrdering(new HeuristicMoveOrdering(myConfig.isRandomTieBreak()));
+        engine.setEvaluator(myEvaluator);
+        engine.setCache(myCache, myConfig.getCacheMinDepth());
+        // The solver is single threaded, so each pooled engine gets its own table (see EngineConfig.ENDGAME_SIZE).
+        if (myConfig.getEndgameCells() > 0) {
+            engine.setSolver(new EndgameSolver(myConfig.getEndgameSizeMb()), myConfig.getEndgameCells());
+        }
+        return engine;
+    }
+
+}
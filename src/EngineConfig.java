@@ -0,0 +1,233 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * EngineConfig.java
+ *
+ * Settings of the computer player, read from a Java properties file. Every setting has a default, so a
+ * missing file or a missing key simply leaves the engine with its default behavior.
+ */
+public class EngineConfig {
+
+    /**
+     * Name of the properties file Game reads its settings from.
+     */
+    public static final String DEFAULT_FILE = "pentago.properties";
+
+    /**
+     * Key of the time the computer may spend choosing a move, in milliseconds.
+     */
+    public static final String TIME_BUDGET = "search.timeMillis";
+
+    /**
+     * Key of the deepest search the computer may run, in plies.
+     */
+    public static final String MAX_DEPTH = "search.maxDepth";
+
+    /**
+     * Key of the size of the transposition table, in megabytes.
+     */
+    public static final String TABLE_SIZE = "tt.sizeMb";
+
+    /**
+     * Key of whether the search shares results between symmetric positions.
+     */
+    public static final String SYMMETRY = "search.symmetry";
+
+    /**
+     * Key of the number of threads the search runs on.
+     */
+    public static final String THREADS = "search.threads";
+
+    /**
+     * Key of whether the computer breaks ties between equally good moves at random.
+     */
+    public static final String RANDOM_TIE_BREAK = "search.randomTieBreak";
+
+    /**
+     * Key of the opening book file, empty for no book.
+     */
+    public static final String BOOK_FILE = "book.file";
+
+    /**
+     * Key of the position cache file, empty for no cache.
+     */
+    public static final String CACHE_FILE = "cache.file";
+
+    /**
+     * Key of the size of a new position cache, in megabytes.
+     */
+    public static final String CACHE_SIZE = "cache.sizeMb";
+
+    /**
+     * Key of the shallowest remaining search depth at which the position cache is used.
+     */
+    public static final String CACHE_MIN_DEPTH = "cache.minDepth";
+
+    /**
+     * Key of the most empty cells a position may have for the endgame solver to take it on, 0 for no
+     * solver.
+     */
+    public static final String ENDGAME_CELLS = "endgame.emptyCells";
+
+    /**
+     * Key of the size of the endgame solver's table, in megabytes. A solver is single threaded, so every
+     * search running at once has one of its own: an Engine analyzing for N callers at once holds N tables
+     * of this size, and positions solved by one are not shared with the others.
+     */
+    public static final String ENDGAME_SIZE = "endgame.sizeMb";
+
+    /**
+     * Key of whether Game logs the statistics of each computer move to System.err.
+     */
+    public static final String LOG_STATS = "search.logStats";
+
+    /* The raw settings. */
+    private Properties myProperties;
+
+    /**
+     * Default constructor, every setting keeps its default value.
+     */
+    public EngineConfig() {
+        this(new Properties());
+    }
+
+    /**
+     * Creates a configuration from already loaded properties.
+     *
+     * @param theProperties The settings to use.
+     */
+    public EngineConfig(Properties theProperties) {
+        myProperties = theProperties;
+    }
+
+    /**
+     * Reads the settings from a properties file.
+     *
+     * @param theFileName The path of the properties file.
+     * @return The settings in the file, or the defaults if the file does not exist.
+     * @throws IllegalStateException Thrown if the file exists but cannot be read.
+     */
+    public static EngineConfig load(String theFileName) throws IllegalStateException {
+        Properties properties = new Properties();
+        File file = new File(theFileName);
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read engine settings from " + theFileName, e);
+            }
+        }
+        return new EngineConfig(properties);
+    }
+
+    /**
+     * Changes a setting.
+     *
+     * @param theKey The key of the setting.
+     * @param theValue The new value of the setting.
+     */
+    public void set(String theKey, String theValue) {
+        myProperties.setProperty(theKey, theValue);
+    }
+
+    public long getTimeBudgetMillis() {
+        return getLong(TIME_BUDGET, 1000);
+    }
+
+    public int getMaxDepth() {
+        return getInt(MAX_DEPTH, BitBoard.CELLS);
+    }
+
+    public int getTableSizeMb() {
+        return getInt(TABLE_SIZE, TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    public int getThreads() {
+        return getInt(THREADS, 1);
+    }
+
+    public boolean isRandomTieBreak() {
+        return getBoolean(RANDOM_TIE_BREAK, false);
+    }
+
+    public boolean isSymmetryEnabled() {
+        return getBoolean(SYMMETRY, true);
+    }
+
+    public String getBookFile() {
+        return myProperties.getProperty(BOOK_FILE, OpeningBook.DEFAULT_FILE).trim();
+    }
+
+    public String getCacheFile() {
+        return myProperties.getProperty(CACHE_FILE, "").trim();
+    }
+
+    public int getCacheSizeMb() {
+        return getInt(CACHE_SIZE, PositionCache.DEFAULT_SIZE_MB);
+    }
+
+    public int getCacheMinDepth() {
+        return getInt(CACHE_MIN_DEPTH, 3);
+    }
+
+    public int getEndgameCells() {
+        return getInt(ENDGAME_CELLS, 10);
+    }
+
+    public int getEndgameSizeMb() {
+        return getInt(ENDGAME_SIZE, EndgameSolver.DEFAULT_SIZE_MB);
+    }
+
+    public boolean isStatsLogged() {
+        return getBoolean(LOG_STATS, true);
+    }
+
+    /**
+     * Reads a true/false setting.
+     *
+     * @param theKey The key of the setting.
+     * @param theDefault The value used when the setting is missing.
+     * @return The value of the setting.
+     */
+    public boolean getBoolean(String theKey, boolean theDefault) {
+        String value = myProperties.getProperty(theKey);
+        return value == null ? theDefault : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Reads an integer setting.
+     *
+     * @param theKey The key of the setting.
+     * @param theDefault The value used when the setting is missing.
+     * @return The value of the setting.
+     * @throws IllegalArgumentException Thrown if the setting is not an integer.
+     */
+    public int getInt(String theKey, int theDefault) throws IllegalArgumentException {
+        return (int) getLong(theKey, theDefault);
+    }
+
+    /**
+     * Reads a long integer setting.
+     *
+     * @param theKey The key of the setting.
+     * @param theDefault The value used when the setting is missing.
+     * @return The value of the setting.
+     * @throws IllegalArgumentException Thrown if the setting is not an integer.
+     */
+    public long getLong(String theKey, long theDefault) throws IllegalArgumentException {
+        String value = myProperties.getProperty(theKey);
+        if (value == null) {
+            return theDefault;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Setting " + theKey + " is not an integer: " + value);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EngineResult.java
+ *
+ * What an Engine found for a position: the search result, the principal variation it expects to be
+ * played, and how much work the search took (see SearchStats).
+ */
+public class EngineResult {
+
+    /* The best move, its score and the depth reached. */
+    private SearchResult myResult;
+
+    /* The line of best play, starting with the best move. */
+    private List<Move> myPrincipalVariation;
+
+    /* The work the search took. */
+    private SearchStats myStats;
+
+    /**
+     * EngineResult object constructor.
+     *
+     * @param theResult The search result.
+     * @param thePrincipalVariation The line of best play, starting with the best move.
+     * @param theStats The statistics of the search.
+     */
+    public EngineResult(SearchResult theResult, List<Move> thePrincipalVariation, SearchStats theStats) {
+        myResult = theResult;
+        myPrincipalVariation = new ArrayList<>(thePrincipalVariation);
+        myStats = theStats;
+    }
+
+    /**
+     * Returns the best move.
+     *
+     * @return The best move, null if the position has no moves left.
+     */
+    public Move getMove() {
+        return myResult.getMove();
+    }
+
+    public int getScore() {
+        return myResult.getScore();
+    }
+
+    public int getDepth() {
+        return myResult.getDepth();
+    }
+
+    public List<Move> getPrincipalVariation() {
+        return new ArrayList<>(myPrincipalVariation);
+    }
+
+    public long getNodes() {
+        return myStats.getNodes();
+    }
+
+    public long getTimeMillis() {
+        return myStats.getTimeMillis();
+    }
+
+    public SearchStats getStats() {
+        return myStats;
+    }
+
+    /**
+     * Returns the search speed.
+     *
+     * @return The positions visited per second.
+     */
+    public long getNodesPerSecond() {
+        return myStats.getNodesPerSecond();
+    }
+
+    public String toString() {
+        StringBuilder line = new StringBuilder();
+        for (Move move : myPrincipalVariation) {
+            line.append(line.length() == 0 ? "" : ", ").append(move);
+        }
+        return myResult + " pv [" + line + "] nodes " + getNodes() + " time " + getTimeMillis() + " ms";
+    }
+
+}
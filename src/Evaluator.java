@@ -0,0 +1,30 @@
+/**
+ * Evaluator.java
+ *
+ * Static evaluation used by SearchEngine at the leaves of the search. An evaluator only scores positions
+ * nobody has won yet; wins and losses are scored by the search itself. Evaluators are shared between
+ * the workers of a ParallelSearch, so they must be safe to call from several threads at once.
+ */
+public interface Evaluator {
+
+    /**
+     * Scores a position that neither player has won.
+     *
+     * @param theBoard The position.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @return The score of the position for the player to move, higher being better. Must stay well
+     *         below SearchEngine.WIN_THRESHOLD in magnitude.
+     */
+    int evaluate(BitBoard theBoard, int theColor);
+
+    /**
+     * Called by SearchEngine on the board it is about to search, so an evaluator can attach state the
+     * board keeps up to date while it is played on (see IncrementalEvaluation). The engine takes the
+     * state off again when the search ends. Does nothing by default.
+     *
+     * @param theBoard The board the search plays on.
+     */
+    default void attach(BitBoard theBoard) {
+    }
+
+}
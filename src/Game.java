@@ -16,11 +16,33 @@ public class Game {
     /* The pieces that the computer will use for the game (W for white pieces, B for black pieces.) */
     private String myComputer;
 
+    /* Settings of the computer player, such as how long it may think about a move. */
+    private EngineConfig myConfig;
+
+    /* The computer's search, kept between turns so its transposition table stays warm. */
+    private ParallelSearch mySearch;
+
+    /* Moves of the opening positions, played without a search. */
+    private OpeningBook myBook;
+
     /**
      * Default constructor.
      */
     public Game() {
         myBoard = new Board();
+        myConfig = EngineConfig.load(EngineConfig.DEFAULT_FILE);
+        mySearch = new ParallelSearch(myConfig.getThreads(), new TranspositionTable(myConfig.getTableSizeMb()));
+        mySearch.setUseSymmetry(myConfig.isSymmetryEnabled());
+        mySearch.setRandomTieBreak(myConfig.isRandomTieBreak());
+        mySearch.setEvaluator(new PatternEvaluator(myConfig));
+        myBook = myConfig.getBookFile().isEmpty() ? new OpeningBook() : OpeningBook.load(myConfig.getBookFile());
+        if (myConfig.getEndgameCells() > 0) {
+            mySearch.setSolver(new EndgameSolver(myConfig.getEndgameSizeMb()), myConfig.getEndgameCells());
+        }
+        if (!myConfig.getCacheFile().isEmpty()) {
+            mySearch.setCache(new PositionCache(myConfig.getCacheFile(), myConfig.getCacheSizeMb()),
+                              myConfig.getCacheMinDepth());
+        }
     }
 
     public static void main(String[] theArgs) {
@@ -103,20 +125,21 @@ public class Game {
     }
 
     /**
-     * Checks the current state of the game board for whether or not a player has won the game.
+     * Checks the current state of the game board for whether or not the game is over: a player has won,
+     * or it is a draw because both players got five in a row at once or the board is full.
      *
      * @return True if the game is over, false if not.
      */
     private boolean checkForWinners() {
-        boolean gameOver = false;
-        if (myBoard.isWinner(myPlayer)) {
+        int state = myBoard.getState();
+        if (state == BitBoard.DRAW) {
+            System.out.println("It's a draw!");
+        } else if (state == BitBoard.winsOf(BitBoard.colorOf(myPlayer))) {
             System.out.println("You win! Good job!");
-            gameOver = true;
-        } else if (myBoard.isWinner(myComputer)) {
+        } else if (state == BitBoard.winsOf(BitBoard.colorOf(myComputer))) {
             System.out.println("The computer wins! Better luck next time.");
-            gameOver = true;
         }
-        return gameOver;
+        return state != BitBoard.ONGOING;
     }
 
     /**
@@ -147,13 +170,23 @@ public class Game {
     }
 
     /**
-     * Creates an alpha beta tree and searches it to decide the next best move to make, then plays that move.
+     * Runs an iterative deepening alpha beta search on the current board for as long as the configured time
+     * budget allows to decide the next best move to make, then plays that move. Positions in the opening
+     * book are answered from the book instead. Unless turned off in the settings, one line describing the
+     * search is written to System.err for every move.
      */
     private Move computerTurn() {
-        GameTreeNode decisionNode = new GameTreeNode(myBoard, null, myComputer, "MAX");
-        decisionNode.generateTree();
-        decisionNode.alphaBetaPruningSearch();
-        Move computerMove = decisionNode.getMove();
+        BitBoard board = new BitBoard(myBoard);
+        Move computerMove = myBook.lookup(board, BitBoard.colorOf(myComputer));
+        String source = "book";
+        if (computerMove == null) {
+            computerMove = mySearch.searchTimed(board, BitBoard.colorOf(myComputer), myConfig.getTimeBudgetMillis(),
+                                                myConfig.getMaxDepth()).getMove();
+            source = "search " + mySearch.getStats();
+        }
+        if (myConfig.isStatsLogged()) {
+            System.err.println("stats move=\"" + computerMove + "\" source=" + source);
+        }
         myBoard.makeMove(computerMove.getPlayBlock(), computerMove.getPosition(),
                          computerMove.getRotatingBlock(), computerMove.getDirection(), myComputer);
         return computerMove;
@@ -54,6 +54,9 @@ public class GameTreeNode {
      * of children.
      */
     private void populateChildren() {
+        if (myBoard.getState() != BitBoard.ONGOING) {
+            return;  // The game is over, there is nothing left to play.
+        }
         ArrayList<Move> validMoves = myBoard.getValidMoves();  // Get all valid moves for the current board state.
         Collections.shuffle(validMoves, new Random());
         for (Move move : validMoves) {
@@ -0,0 +1,158 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * HeuristicMoveOrdering.java
+ *
+ * The default move ordering of SearchEngine. Moves are tried in this order:
+ *
+ *   1. the transposition table move,
+ *   2. moves that win on the spot,
+ *   3. moves that take a cell the opponent needs to complete five in a row,
+ *   4. the two killer moves of the ply (the last moves that caused a cutoff at the same distance
+ *      from the root),
+ *   5. everything else by the history heuristic, a count of the cutoffs each (cell, rotation) pair
+ *      has caused anywhere in the tree, weighted by the depth of the cutoff.
+ *
+ * Moves that tie keep the order BitBoard generated them in, unless random tie breaking is turned on.
+ */
+public class HeuristicMoveOrdering implements MoveOrdering {
+
+    /**
+     * Deepest ply the ordering keeps killer moves and sort buffers for.
+     */
+    private static final int MAX_PLY = BitBoard.CELLS + 1;
+
+    /* Bonuses of the ordering stages, each larger than everything below it. */
+    private static final int TABLE_MOVE = 1 << 30;
+    private static final int WINNING_MOVE = 1 << 29;
+    private static final int BLOCKING_MOVE = 1 << 28;
+    private static final int FIRST_KILLER = 1 << 27;
+    private static final int SECOND_KILLER = 1 << 26;
+    private static final int HISTORY_LIMIT = SECOND_KILLER - 1;
+
+    /* Two killer moves per ply, packed (see Move.encode()), -1 when empty. */
+    private int[][] myKillers = new int[MAX_PLY][2];
+
+    /* Cutoff history per played cell and rotation (rotating block and direction). */
+    private int[][] myHistory = new int[BitBoard.CELLS][8];
+
+    /* Sort keys and a copy of the moves for each ply, reused so ordering does not allocate. */
+    private long[][] myKeys = new long[MAX_PLY][BitBoard.MAX_MOVES];
+    private int[][] myMoves = new int[MAX_PLY][BitBoard.MAX_MOVES];
+
+    /* Source of random tie breaks, null when ties keep the generated order. */
+    private Random myRandom;
+
+    /**
+     * Default constructor, moves that tie keep the order they were generated in.
+     */
+    public HeuristicMoveOrdering() {
+        this(false);
+    }
+
+    /**
+     * Creates an ordering that may break ties between equally promising moves at random, which makes
+     * the computer vary its play between games without weakening the ordering.
+     *
+     * @param isRandomTieBreak True to break ties at random.
+     */
+    public HeuristicMoveOrdering(boolean isRandomTieBreak) {
+        myRandom = isRandomTieBreak ? new Random() : null;
+        for (int[] killers : myKillers) {
+            Arrays.fill(killers, -1);
+        }
+    }
+
+    @Override
+    public void newSearch() {
+        for (int[] killers : myKillers) {
+            Arrays.fill(killers, -1);
+        }
+        for (int[] history : myHistory) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    @Override
+    public void order(BitBoard theBoard, int theColor, int[] theMoves, int theCount, int theTableMove, int thePly) {
+        int ply = Math.min(thePly, MAX_PLY - 1);
+        long[] keys = myKeys[ply];
+        int[] moves = myMoves[ply];
+
+        // A win takes five pieces, so neither check is worth making with fewer than four on the board.
+        boolean canWin = Long.bitCount(theBoard.getPieces(theColor)) >= 4;
+        long blocks = Long.bitCount(theBoard.getPieces(1 - theColor)) >= 4
+                      ? findBlockingCells(theBoard, 1 - theColor) : 0L;
+
+        for (int i = 0; i < theCount; i++) {
+            int code = theMoves[i];
+            int cell = code & 0x3F;
+            int score;
+            if (code == theTableMove) {
+                score = TABLE_MOVE;
+            } else {
+                score = Math.min(myHistory[cell][code >>> 6], HISTORY_LIMIT);
+                if (code == myKillers[ply][0]) {
+                    score += FIRST_KILLER;
+                } else if (code == myKillers[ply][1]) {
+                    score += SECOND_KILLER;
+                }
+                if ((blocks & 1L << cell) != 0) {
+                    score += BLOCKING_MOVE;
+                }
+                if (canWin) {
+                    theBoard.makeMove(code, theColor);
+                    if (theBoard.isWinner(theColor)) {
+                        score += WINNING_MOVE;
+                    }
+                    theBoard.unmakeMove(code);
+                }
+            }
+            int tieBreak = myRandom != null ? myRandom.nextInt(512) : BitBoard.MAX_MOVES - i;
+            keys[i] = (long) score << 20 | (long) tieBreak << 9 | i;
+            moves[i] = code;
+        }
+
+        Arrays.sort(keys, 0, theCount);
+        for (int i = 0; i < theCount; i++) {
+            theMoves[i] = moves[(int) (keys[theCount - 1 - i] & 0x1FF)];
+        }
+    }
+
+    @Override
+    public void recordCutoff(int theMove, int thePly, int theDepth) {
+        int ply = Math.min(thePly, MAX_PLY - 1);
+        if (myKillers[ply][0] != theMove) {
+            myKillers[ply][1] = myKillers[ply][0];
+            myKillers[ply][0] = theMove;
+        }
+        int[] history = myHistory[theMove & 0x3F];
+        history[theMove >>> 6] = Math.min(history[theMove >>> 6] + theDepth * theDepth, HISTORY_LIMIT);
+    }
+
+    /**
+     * Finds the empty cells where a piece of the given color would complete five in a row.
+     *
+     * @param theBoard The position.
+     * @param theColor The color to find winning cells for.
+     * @return The bits of the cells the other player should take.
+     */
+    private static long findBlockingCells(BitBoard theBoard, int theColor) {
+        long cells = 0L;
+        long empty = ~theBoard.getOccupied() & BitBoard.BOARD_MASK;
+        while (empty != 0) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            empty &= empty - 1;
+            theBoard.placePiece(cell, theColor);
+            if (theBoard.isWinner(theColor)) {
+                cells |= 1L << cell;
+            }
+            theBoard.clearPiece(cell);
+        }
+        return cells;
+    }
+
+}
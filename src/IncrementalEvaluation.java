@@ -0,0 +1,221 @@
+import java.util.Arrays;
+
+/**
+ * IncrementalEvaluation.java
+ *
+ * Running window scores of a PatternEvaluator, attached to the BitBoard a search plays on. The number
+ * of white and black pieces in each of the 32 windows is kept up to date as the board changes: placing
+ * or clearing a piece only touches the windows through that cell, and rotating a block only recounts
+ * the windows crossing that block. The sum of the window scores and the number of open fours of each
+ * player follow along, so evaluating a leaf no longer scans the whole board.
+ *
+ * Taking a move back does not replay the changes in reverse: the state is saved when a move is made and
+ * put back when it is taken back. The board notifies its evaluation of every change, so an evaluation
+ * belongs to exactly one board.
+ */
+public class IncrementalEvaluation {
+
+    /* Indices of the windows through each cell. */
+    private static final int[][] CELL_WINDOWS = new int[BitBoard.CELLS][];
+
+    /* Indices of the windows crossing each block. */
+    private static final int[][] BLOCK_WINDOWS = new int[4][];
+
+    static {
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            CELL_WINDOWS[cell] = windowsCrossing(1L << cell);
+        }
+        for (int block = 0; block < 4; block++) {
+            BLOCK_WINDOWS[block] = windowsCrossing(BitBoard.BLOCK_MASK << block * BitBoard.BLOCK_CELLS);
+        }
+    }
+
+    /* Packed counts of a window holding four pieces of one color and none of the other. */
+    private static final int WHITE_FOUR = 4;
+    private static final int BLACK_FOUR = 4 << 3;
+
+    /* The evaluator whose weights the scores follow. */
+    private final PatternEvaluator myEvaluator;
+
+    /* Score of a window by its packed count, from white's point of view. */
+    private final int[] myScores = new int[64];
+
+    /* Number of pieces in each window, packed as white + (black << 3). */
+    private int[] myCounts = new int[WinLines.WINDOW_COUNT];
+
+    /* Sum of the window scores, from white's point of view. */
+    private int myTotal;
+
+    /* Number of windows holding four pieces of a color and none of the other, per color. */
+    private int myWhiteFours;
+    private int myBlackFours;
+
+    /* State saved by save(), one entry per move played since. A board holds at most 36 pieces. */
+    private final int[][] mySavedCounts = new int[BitBoard.CELLS][WinLines.WINDOW_COUNT];
+    private final int[] mySavedTotals = new int[BitBoard.CELLS];
+    private final int[] mySavedFours = new int[BitBoard.CELLS];
+    private int mySaved;
+
+    /**
+     * Creates the running scores of a board.
+     *
+     * @param theEvaluator The evaluator whose weights to use.
+     * @param theBoard The board to count the pieces of.
+     */
+    public IncrementalEvaluation(PatternEvaluator theEvaluator, BitBoard theBoard) {
+        myEvaluator = theEvaluator;
+        for (int white = 0; white <= 5; white++) {
+            for (int black = 0; white + black <= 5; black++) {
+                myScores[white | black << 3] = theEvaluator.windowScore(white, black);
+            }
+        }
+        reset(theBoard);
+    }
+
+    /**
+     * Recounts every window from scratch and forgets any saved state.
+     *
+     * @param theBoard The board to count the pieces of.
+     */
+    public void reset(BitBoard theBoard) {
+        myTotal = 0;
+        myWhiteFours = 0;
+        myBlackFours = 0;
+        mySaved = 0;
+        for (int window = 0; window < WinLines.WINDOW_COUNT; window++) {
+            myCounts[window] = 0;
+            update(window, count(window, theBoard));
+        }
+    }
+
+    /**
+     * Saves the current state, called by BitBoard before it plays a move.
+     *
+     * @throws IllegalStateException Thrown if more moves were played than a board has cells.
+     */
+    void save() throws IllegalStateException {
+        if (mySaved == BitBoard.CELLS) {
+            throw new IllegalStateException("More moves played than the board has cells.");
+        }
+        System.arraycopy(myCounts, 0, mySavedCounts[mySaved], 0, WinLines.WINDOW_COUNT);
+        mySavedTotals[mySaved] = myTotal;
+        mySavedFours[mySaved] = myWhiteFours | myBlackFours << 16;
+        mySaved++;
+    }
+
+    /**
+     * Goes back to the state saved by the last save(), called by BitBoard when it takes a move back.
+     */
+    void restore() {
+        mySaved--;
+        System.arraycopy(mySavedCounts[mySaved], 0, myCounts, 0, WinLines.WINDOW_COUNT);
+        myTotal = mySavedTotals[mySaved];
+        myWhiteFours = mySavedFours[mySaved] & 0xFFFF;
+        myBlackFours = mySavedFours[mySaved] >>> 16;
+    }
+
+    /**
+     * Updates the windows through a cell after a piece was placed on it or cleared from it.
+     *
+     * @param theCell The cell that changed.
+     * @param theColor The color of the piece.
+     * @param theDelta 1 if the piece was placed, -1 if it was cleared.
+     */
+    void cellChanged(int theCell, int theColor, int theDelta) {
+        int delta = theDelta << theColor * 3;
+        for (int window : CELL_WINDOWS[theCell]) {
+            update(window, myCounts[window] + delta);
+        }
+    }
+
+    /**
+     * Recounts the windows crossing a block after it was rotated.
+     *
+     * @param theBoard The board after the rotation.
+     * @param theBlockNum The block that was rotated, 1 to 4.
+     * @param theChanged The bits of the cells whose piece changed.
+     */
+    void blockRotated(BitBoard theBoard, int theBlockNum, long theChanged) {
+        for (int window : BLOCK_WINDOWS[theBlockNum - 1]) {
+            if ((WinLines.WINDOWS[window] & theChanged) != 0) {
+                update(window, count(window, theBoard));
+            }
+        }
+    }
+
+    public PatternEvaluator getEvaluator() {
+        return myEvaluator;
+    }
+
+    /**
+     * Returns the sum of the window scores.
+     *
+     * @return The score of the windows, from white's point of view.
+     */
+    public int getTotal() {
+        return myTotal;
+    }
+
+    /**
+     * Returns the number of windows holding four pieces of a color and none of the other.
+     *
+     * @param theColor The color to count open fours of.
+     * @return The number of open fours.
+     */
+    public int getOpenFours(int theColor) {
+        return theColor == BitBoard.WHITE ? myWhiteFours : myBlackFours;
+    }
+
+    /**
+     * Counts the pieces of a window on the board.
+     *
+     * @param theWindow The index of the window.
+     * @param theBoard The board to count the pieces of.
+     * @return The packed count of the window.
+     */
+    private static int count(int theWindow, BitBoard theBoard) {
+        long window = WinLines.WINDOWS[theWindow];
+        return Long.bitCount(theBoard.getPieces(BitBoard.WHITE) & window)
+               | Long.bitCount(theBoard.getPieces(BitBoard.BLACK) & window) << 3;
+    }
+
+    /**
+     * Replaces the count of a window and moves the running totals along.
+     *
+     * @param theWindow The index of the window.
+     * @param theCount The new packed count of the window.
+     */
+    private void update(int theWindow, int theCount) {
+        int old = myCounts[theWindow];
+        myCounts[theWindow] = theCount;
+        myTotal += myScores[theCount] - myScores[old];
+        if (old == WHITE_FOUR) {
+            myWhiteFours--;
+        } else if (old == BLACK_FOUR) {
+            myBlackFours--;
+        }
+        if (theCount == WHITE_FOUR) {
+            myWhiteFours++;
+        } else if (theCount == BLACK_FOUR) {
+            myBlackFours++;
+        }
+    }
+
+    /**
+     * Finds the windows crossing a set of cells.
+     *
+     * @param theCells The cells.
+     * @return The indices of the windows holding at least one of the cells.
+     */
+    private static int[] windowsCrossing(long theCells) {
+        int count = 0;
+        int[] windows = new int[WinLines.WINDOW_COUNT];
+        for (int window = 0; window < WinLines.WINDOW_COUNT; window++) {
+            if ((WinLines.WINDOWS[window] & theCells) != 0) {
+                windows[count++] = window;
+            }
+        }
+        return Arrays.copyOf(windows, count);
+    }
+
+}
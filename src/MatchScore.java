@@ -0,0 +1,164 @@
+/**
+ * MatchScore.java
+ *
+ * The running score of a match between two engines, counted from the first engine's point of view: a
+ * win is worth 1, a draw 1/2 and a loss 0. Besides the tally it gives the mean score with a 95%
+ * confidence margin, the Elo difference the score stands for, and the log likelihood ratio of a
+ * sequential probability ratio test (SPRT), which can end a match as soon as the games played are
+ * enough to tell one Elo difference from another.
+ *
+ * The methods are synchronized, so games played on several threads can record into one score.
+ */
+public class MatchScore {
+
+    /* Normal quantile of a two sided 95% confidence interval. */
+    private static final double Z_95 = 1.959964;
+
+    /* Games won, drawn and lost by the first engine. */
+    private int myWins;
+    private int myDraws;
+    private int myLosses;
+
+    public synchronized void addWin() {
+        myWins++;
+    }
+
+    public synchronized void addDraw() {
+        myDraws++;
+    }
+
+    public synchronized void addLoss() {
+        myLosses++;
+    }
+
+    public synchronized int getWins() {
+        return myWins;
+    }
+
+    public synchronized int getDraws() {
+        return myDraws;
+    }
+
+    public synchronized int getLosses() {
+        return myLosses;
+    }
+
+    public synchronized int getGames() {
+        return myWins + myDraws + myLosses;
+    }
+
+    /**
+     * Returns the mean score of the first engine.
+     *
+     * @return The points per game, from 0 to 1, or 1/2 before any game is played.
+     */
+    public synchronized double getScore() {
+        int games = getGames();
+        return games == 0 ? 0.5 : (myWins + 0.5 * myDraws) / games;
+    }
+
+    /**
+     * Returns the half width of the 95% confidence interval of the mean score, estimated from the spread
+     * of the game results.
+     *
+     * @return The margin, so the true score lies within getScore() plus or minus it.
+     */
+    public synchronized double getErrorMargin() {
+        int games = getGames();
+        if (games == 0) {
+            return 0.5;
+        }
+        return Z_95 * Math.sqrt(variance() / games);
+    }
+
+    /**
+     * Returns the Elo difference between the engines the mean score stands for.
+     *
+     * @return The first engine's rating minus the second's, infinite if one engine won every game.
+     */
+    public synchronized double getElo() {
+        return elo(getScore());
+    }
+
+    /**
+     * Computes the log likelihood ratio of the games played so far, for the hypothesis that the first
+     * engine is theElo1 stronger than the second against the hypothesis that it is theElo0 stronger. The
+     * game results are approximated by a normal distribution with the observed spread.
+     *
+     * @param theElo0 The Elo difference of the null hypothesis.
+     * @param theElo1 The Elo difference of the alternative hypothesis, above theElo0.
+     * @return The log likelihood ratio, 0 before the results spread at all.
+     */
+    public synchronized double getLogLikelihoodRatio(double theElo0, double theElo1) {
+        double variance = variance();
+        if (variance == 0) {
+            return 0;
+        }
+        double score0 = expectedScore(theElo0);
+        double score1 = expectedScore(theElo1);
+        return getGames() * (score1 - score0) * (2 * getScore() - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * Decides an SPRT from its log likelihood ratio.
+     *
+     * @param theElo0 The Elo difference of the null hypothesis.
+     * @param theElo1 The Elo difference of the alternative hypothesis, above theElo0.
+     * @param theAlpha The accepted chance of accepting theElo1 when theElo0 holds.
+     * @param theBeta The accepted chance of accepting theElo0 when theElo1 holds.
+     * @return 1 if theElo1 is accepted, -1 if theElo0 is accepted, 0 if more games are needed.
+     */
+    public synchronized int sprt(double theElo0, double theElo1, double theAlpha, double theBeta) {
+        double ratio = getLogLikelihoodRatio(theElo0, theElo1);
+        if (ratio >= Math.log((1 - theBeta) / theAlpha)) {
+            return 1;
+        } else if (ratio <= Math.log(theBeta / (1 - theAlpha))) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Converts a mean score to an Elo difference.
+     *
+     * @param theScore The mean score, from 0 to 1.
+     * @return The Elo difference.
+     */
+    public static double elo(double theScore) {
+        return -400 * Math.log10(1 / theScore - 1);
+    }
+
+    /**
+     * Converts an Elo difference to the mean score it predicts.
+     *
+     * @param theElo The Elo difference.
+     * @return The mean score, from 0 to 1.
+     */
+    public static double expectedScore(double theElo) {
+        return 1 / (1 + Math.pow(10, -theElo / 400));
+    }
+
+    public synchronized String toString() {
+        double elo = getElo();
+        double low = elo(Math.max(0, getScore() - getErrorMargin()));
+        double high = elo(Math.min(1, getScore() + getErrorMargin()));
+        return String.format("+%d =%d -%d, score %.3f +- %.3f, elo %.1f [%.1f, %.1f]", myWins, myDraws, myLosses,
+                             getScore(), getErrorMargin(), elo, low, high);
+    }
+
+    /**
+     * Computes the variance of the score of a single game.
+     *
+     * @return The variance of the game results around the mean score.
+     */
+    private double variance() {
+        int games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        double score = getScore();
+        return (myWins * (1 - score) * (1 - score) + myDraws * (0.5 - score) * (0.5 - score)
+                + myLosses * score * score) / games;
+    }
+
+}
@@ -35,6 +35,54 @@ public class Move {
         myDirection = "" + theMove.getDirection();
     }
 
+    /**
+     * Packs the move into an int: the index of the played cell in the low six bits (see
+     * BitBoard.cellIndex()), the rotating block minus one in the next two bits and a set ninth bit for
+     * a right rotation.
+     *
+     * @return The packed move, between 0 and 511.
+     */
+    public int encode() {
+        int cell = (myPlayBlock - 1) * 9 + myPosition - 1;
+        int direction = myDirection.equalsIgnoreCase("R") ? 1 : 0;
+        return cell | (myRotatingBlock - 1) << 6 | direction << 8;
+    }
+
+    /**
+     * Unpacks a move packed by encode().
+     *
+     * @param theCode The packed move.
+     * @return A new Move object for the packed move.
+     */
+    public static Move decode(int theCode) {
+        int cell = theCode & 0x3F;
+        return new Move(cell / 9 + 1, cell % 9 + 1, (theCode >>> 6 & 0x3) + 1,
+                        (theCode & 0x100) != 0 ? "R" : "L");
+    }
+
+    /**
+     * Reads a move written in the notation of toString(), for example "2/3 4R".
+     *
+     * @param theText The move in text form.
+     * @return A new Move object for the move.
+     * @throws IllegalArgumentException Thrown if the text is not a well formed move.
+     */
+    public static Move parse(String theText) throws IllegalArgumentException {
+        String text = theText.trim();
+        if (text.length() != 6 || text.charAt(1) != '/' || text.charAt(3) != ' ') {
+            throw new IllegalArgumentException("Invalid move: " + theText);
+        }
+        int playBlock = Character.getNumericValue(text.charAt(0));
+        int position = Character.getNumericValue(text.charAt(2));
+        int rotatingBlock = Character.getNumericValue(text.charAt(4));
+        String direction = text.substring(5, 6).toUpperCase();
+        if (playBlock < 1 || playBlock > 4 || position < 1 || position > 9
+                || rotatingBlock < 1 || rotatingBlock > 4 || (!direction.equals("L") && !direction.equals("R"))) {
+            throw new IllegalArgumentException("Invalid move: " + theText);
+        }
+        return new Move(playBlock, position, rotatingBlock, direction);
+    }
+
     public int getPlayBlock() {
         return myPlayBlock;
     }
@@ -51,6 +99,22 @@ public class Move {
         return myDirection;
     }
 
+    @Override
+    public boolean equals(Object theOther) {
+        if (!(theOther instanceof Move)) {
+            return false;
+        }
+        Move other = (Move) theOther;
+        return myPlayBlock == other.myPlayBlock && myPosition == other.myPosition
+                && myRotatingBlock == other.myRotatingBlock && myDirection.equalsIgnoreCase(other.myDirection);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((myPlayBlock * 10 + myPosition) * 10 + myRotatingBlock) * 2
+                + (myDirection.equalsIgnoreCase("R") ? 1 : 0);
+    }
+
     public String toString() {
         return myPlayBlock + "/" + myPosition + " " + myRotatingBlock + myDirection;
     }
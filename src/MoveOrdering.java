@@ -0,0 +1,37 @@
+/**
+ * MoveOrdering.java
+ *
+ * Decides the order in which SearchEngine tries the moves of a position. Alpha beta search cuts off
+ * the most when the best move comes first, so a good ordering shrinks the tree a great deal. An engine
+ * owns its ordering and uses it from a single thread.
+ */
+public interface MoveOrdering {
+
+    /**
+     * Forgets what was learned about the previous position, called when a new search starts.
+     */
+    void newSearch();
+
+    /**
+     * Sorts the moves of a position, the most promising first.
+     *
+     * @param theBoard The position the moves are played on. It may be played on but must be restored.
+     * @param theColor The color of the player to move.
+     * @param theMoves The packed moves of the position (see Move.encode()), sorted in place.
+     * @param theCount The number of moves, which fill the start of theMoves.
+     * @param theTableMove The packed best move stored in the transposition table for the position
+     *                     (see Move.encode()), or -1 if there is none.
+     * @param thePly The distance of the position from the root.
+     */
+    void order(BitBoard theBoard, int theColor, int[] theMoves, int theCount, int theTableMove, int thePly);
+
+    /**
+     * Tells the ordering that a move was good enough to cut the search of a position off.
+     *
+     * @param theMove The packed move that caused the cutoff.
+     * @param thePly The distance of the position from the root.
+     * @param theDepth The remaining depth the position was searched to.
+     */
+    void recordCutoff(int theMove, int thePly, int theDepth);
+
+}
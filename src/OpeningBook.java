@@ -0,0 +1,291 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * OpeningBook.java
+ *
+ * Best moves of the opening positions, searched once offline so the computer answers them at once. The
+ * first moves are the most expensive to search, with the most moves to choose from, and the positions
+ * are the same in every game.
+ *
+ * Entries are keyed by the canonical hash of the position (see Symmetry), so one entry serves all eight
+ * symmetric images, and the move is stored for the canonical form. A lookup maps it back through the
+ * inverse of the symmetry that made the position canonical. Only positions with the usual player to move,
+ * white when both players have as many pieces, are in the book. The game is the same for both colors, so
+ * a position with the other player to move, as when the computer plays black and moves first, is looked
+ * up with the colors swapped.
+ *
+ * The book file is a header of a magic number and the number of entries followed by the entries sorted
+ * by key, 10 bytes each: the 8 byte key and the packed move (see Move.encode()) in 2 bytes. It is read
+ * into memory whole, and a lookup is a binary search.
+ */
+public class OpeningBook {
+
+    /**
+     * Name of the book file used when the settings name none.
+     */
+    public static final String DEFAULT_FILE = "pentago.book";
+
+    /* First bytes of a book file, "PBK1". */
+    private static final int MAGIC = 0x50424B31;
+
+    /* Canonical hashes of the positions in the book, sorted. */
+    private long[] myKeys;
+
+    /* Packed best move of each position, for its canonical form. */
+    private short[] myMoves;
+
+    /**
+     * Default constructor, creates an empty book.
+     */
+    public OpeningBook() {
+        this(new long[0], new short[0]);
+    }
+
+    /**
+     * Creates a book from its entries.
+     *
+     * @param theKeys The canonical hashes of the positions, sorted.
+     * @param theMoves The packed best move of each position, for its canonical form.
+     */
+    private OpeningBook(long[] theKeys, short[] theMoves) {
+        myKeys = theKeys;
+        myMoves = theMoves;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param theBoard The position.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @return The book move, or null if the position is not in the book.
+     */
+    public Move lookup(BitBoard theBoard, int theColor) {
+        if (myKeys.length == 0) {
+            return null;
+        }
+        int pieces = Long.bitCount(theBoard.getPieces(BitBoard.WHITE) | theBoard.getPieces(BitBoard.BLACK));
+        BitBoard board = pieces % 2 == theColor ? theBoard : swapColors(theBoard);
+        int symmetry = Symmetry.canonicalSymmetry(board);
+        int index = Arrays.binarySearch(myKeys, Symmetry.hashOf(board, symmetry));
+        if (index < 0) {
+            return null;
+        }
+        int move = Symmetry.transformMove(myMoves[index], Symmetry.inverse(symmetry));
+        // Two positions sharing a hash could make the move illegal.
+        return theBoard.isEmpty(move & 0x3F) ? Move.decode(move) : null;
+    }
+
+    public int size() {
+        return myKeys.length;
+    }
+
+    /**
+     * Copies a position with every white piece made black and every black piece white.
+     *
+     * @param theBoard The position.
+     * @return The position with the colors swapped.
+     */
+    private static BitBoard swapColors(BitBoard theBoard) {
+        BitBoard board = new BitBoard();
+        for (int color = BitBoard.WHITE; color <= BitBoard.BLACK; color++) {
+            for (long pieces = theBoard.getPieces(color); pieces != 0; pieces &= pieces - 1) {
+                board.placePiece(Long.numberOfTrailingZeros(pieces), 1 - color);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Builds a book by searching every distinct position of the first plies.
+     *
+     * @param theEngine The engine to search with. It should not use a book itself.
+     * @param thePlies The number of plies covered: positions with fewer pieces than this are searched.
+     * @param theLimits How long to search each position.
+     * @param theThreads The number of positions searched at once, at least 1.
+     * @return The book.
+     * @throws IllegalStateException Thrown if a search failed.
+     */
+    public static OpeningBook build(Engine theEngine, int thePlies, SearchLimits theLimits, int theThreads)
+        throws IllegalStateException {
+        ArrayList<BitBoard> positions = new ArrayList<>();
+        ArrayList<BitBoard> level = new ArrayList<>();
+        level.add(new BitBoard());
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        for (int ply = 0; ply < thePlies; ply++) {
+            positions.addAll(level);
+            ArrayList<BitBoard> next = new ArrayList<>();
+            HashSet<Long> seen = new HashSet<>();
+            for (BitBoard board : level) {
+                int count = board.generateDistinctMoves(moves, ply % 2);
+                for (int i = 0; i < count; i++) {
+                    board.makeMove(moves[i], ply % 2);
+                    if (board.getState() == BitBoard.ONGOING && seen.add(Symmetry.canonicalHash(board))) {
+                        next.add(new BitBoard(board));
+                    }
+                    board.unmakeMove(moves[i]);
+                }
+            }
+            level = next;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(theThreads);
+        TreeMap<Long, Short> entries = new TreeMap<>();
+        try {
+            ArrayList<Future<Move>> searches = new ArrayList<>();
+            for (BitBoard board : positions) {
+                int color = Long.bitCount(board.getPieces(BitBoard.WHITE) | board.getPieces(BitBoard.BLACK)) % 2;
+                searches.add(pool.submit(() -> theEngine.analyze(board, color, theLimits).getMove()));
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                BitBoard board = positions.get(i);
+                int symmetry = Symmetry.canonicalSymmetry(board);
+                int move = Symmetry.transformMove(join(searches.get(i)).encode(), symmetry);
+                entries.put(Symmetry.hashOf(board, symmetry), (short) move);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long[] keys = new long[entries.size()];
+        short[] bookMoves = new short[entries.size()];
+        int index = 0;
+        for (Map.Entry<Long, Short> entry : entries.entrySet()) {
+            keys[index] = entry.getKey();
+            bookMoves[index++] = entry.getValue();
+        }
+        return new OpeningBook(keys, bookMoves);
+    }
+
+    /**
+     * Writes the book to a file.
+     *
+     * @param theFileName The path of the book file.
+     * @throws IllegalStateException Thrown if the file cannot be written.
+     */
+    public void save(String theFileName) throws IllegalStateException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(theFileName)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(myKeys.length);
+            for (int i = 0; i < myKeys.length; i++) {
+                out.writeLong(myKeys[i]);
+                out.writeShort(myMoves[i]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write opening book to " + theFileName, e);
+        }
+    }
+
+    /**
+     * Reads a book from a file.
+     *
+     * @param theFileName The path of the book file.
+     * @return The book in the file, or an empty book if the file does not exist.
+     * @throws IllegalStateException Thrown if the file exists but is not a book or cannot be read.
+     */
+    public static OpeningBook load(String theFileName) throws IllegalStateException {
+        File file = new File(theFileName);
+        if (!file.isFile()) {
+            return new OpeningBook();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException(theFileName + " is not an opening book.");
+            }
+            int count = in.readInt();
+            long[] keys = new long[count];
+            short[] moves = new short[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = in.readLong();
+                moves[i] = in.readShort();
+            }
+            return new OpeningBook(keys, moves);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read opening book from " + theFileName, e);
+        }
+    }
+
+    /**
+     * Waits for the search of a book position.
+     *
+     * @param theSearch The search.
+     * @return The best move found.
+     * @throws IllegalStateException Thrown if the search failed.
+     */
+    private static Move join(Future<Move> theSearch) throws IllegalStateException {
+        try {
+            return theSearch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the book.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Book search failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Builds a book from the command line:
+     *
+     *   java OpeningBook plies [-depth n] [-time ms] [-threads n] [-config file] [-out file]
+     *
+     * Positions are searched with the settings of the config file (pentago.properties by default), to
+     * the given depth or within the given time each, and the book is written to the out file (the book
+     * file of the settings by default).
+     *
+     * @param theArgs The command line arguments.
+     */
+    public static void main(String[] theArgs) {
+        if (theArgs.length == 0) {
+            System.out.println("Usage: java OpeningBook plies [-depth n] [-time ms] [-threads n] [-config file]"
+                               + " [-out file]");
+            return;
+        }
+        int plies = Integer.parseInt(theArgs[0]);
+        int depth = 0;
+        long millis = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String configFile = EngineConfig.DEFAULT_FILE;
+        String out = null;
+        for (int i = 1; i < theArgs.length; i++) {
+            switch (theArgs[i]) {
+                case "-depth":   depth = Integer.parseInt(theArgs[++i]); break;
+                case "-time":    millis = Long.parseLong(theArgs[++i]); break;
+                case "-threads": threads = Integer.parseInt(theArgs[++i]); break;
+                case "-config":  configFile = theArgs[++i]; break;
+                case "-out":     out = theArgs[++i]; break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + theArgs[i]);
+            }
+        }
+        EngineConfig config = EngineConfig.load(configFile);
+        if (out == null) {
+            out = config.getBookFile().isEmpty() ? DEFAULT_FILE : config.getBookFile();
+        }
+        config.set(EngineConfig.BOOK_FILE, "");
+        SearchLimits limits = depth > 0 || millis > 0 ? new SearchLimits(depth, millis, 0)
+                                                      : new SearchLimits(config.getMaxDepth(),
+                                                                         config.getTimeBudgetMillis(), 0);
+
+        long start = System.nanoTime();
+        OpeningBook book = build(new Engine(config), plies, limits, threads);
+        book.save(out);
+        System.out.printf("%d positions (%s) in %.1f s written to %s%n", book.size(), limits,
+                          (System.nanoTime() - start) / 1e9, out);
+    }
+
+}
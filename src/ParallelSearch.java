@@ -0,0 +1,265 @@
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * ParallelSearch.java
+ *
+ * Multi core search in the Lazy SMP style: every worker thread of a ForkJoinPool runs its own
+ * SearchEngine on its own copy of the board, and the workers only cooperate through a shared lock-free
+ * TranspositionTable. Results one worker stores cut off or order the search of the others. The main
+ * worker decides when the search ends; the other workers are stopped at that point and the deepest
+ * completed result wins, ties going to the main worker.
+ *
+ * With a single thread this is the plain iterative deepening search of SearchEngine.
+ */
+public class ParallelSearch {
+
+    /* The pool running the workers, one thread per worker. */
+    private ForkJoinPool myPool;
+
+    /* One engine per worker, reused from search to search. */
+    private SearchEngine[] myEngines;
+
+    /* The table shared by the workers. */
+    private TranspositionTable myTable;
+
+    /**
+     * Creates a parallel search.
+     *
+     * @param theThreads The number of worker threads, at least 1.
+     * @param theTable The transposition table shared by the workers.
+     * @throws IllegalArgumentException Thrown if the number of threads is less than 1.
+     */
+    public ParallelSearch(int theThreads, TranspositionTable theTable) throws IllegalArgumentException {
+        if (theThreads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread.");
+        }
+        myPool = new ForkJoinPool(theThreads);
+        myTable = theTable;
+        myEngines = new SearchEngine[theThreads];
+        for (int i = 0; i < theThreads; i++) {
+            myEngines[i] = new SearchEngine(theTable, i);
+        }
+    }
+
+    /**
+     * Searches to a fixed depth on every worker.
+     *
+     * @param theBoard The position to search. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theDepth The number of plies the main worker searches.
+     * @return The deepest completed result.
+     */
+    public SearchResult search(BitBoard theBoard, int theColor, int theDepth) {
+        return searchTimed(theBoard, theColor, Long.MAX_VALUE, theDepth);
+    }
+
+    /**
+     * Iterative deepening search on every worker until the time budget runs out or the main worker
+     * completes its deepest iteration.
+     *
+     * @param theBoard The position to search. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theTimeMillis The time the search may take, in milliseconds.
+     * @param theMaxDepth The deepest iteration the main worker runs.
+     * @return The deepest completed result.
+     */
+    public SearchResult searchTimed(BitBoard theBoard, int theColor, long theTimeMillis, int theMaxDepth) {
+        myTable.newSearch();
+        ArrayList<ForkJoinTask<SearchResult>> tasks = new ArrayList<>();
+        for (SearchEngine engine : myEngines) {
+            engine.clearStop();
+        }
+        for (SearchEngine engine : myEngines) {
+            BitBoard board = new BitBoard(theBoard);
+            tasks.add(myPool.submit(() -> engine.searchTimed(board, theColor, theTimeMillis, theMaxDepth)));
+        }
+
+        SearchResult best = join(tasks.get(0));
+        for (SearchEngine engine : myEngines) {
+            engine.stop();
+        }
+        for (int i = 1; i < tasks.size(); i++) {
+            SearchResult result = join(tasks.get(i));
+            if (result.getMove() != null && result.getDepth() > best.getDepth()) {
+                best = result;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Stops the search in progress on every worker.
+     */
+    public void stop() {
+        for (SearchEngine engine : myEngines) {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Turns keying positions by their canonical form on or off for every worker.
+     *
+     * @param isEnabled True to share table entries between symmetric positions.
+     */
+    public void setUseSymmetry(boolean isEnabled) {
+        for (SearchEngine engine : myEngines) {
+            engine.setUseSymmetry(isEnabled);
+        }
+    }
+
+    /**
+     * Turns random tie breaking of the move ordering on or off for every worker. Each worker gets a
+     * fresh HeuristicMoveOrdering.
+     *
+     * @param isRandomTieBreak True to break ties between equally promising moves at random.
+     */
+    public void setRandomTieBreak(boolean isRandomTieBreak) {
+        for (SearchEngine engine : myEngines) {
+            engine.setMoveOrdering(new HeuristicMoveOrdering(isRandomTieBreak));
+        }
+    }
+
+    /**
+     * Replaces the evaluation of every worker. The workers share the evaluator, so it must be safe to
+     * use from several threads.
+     *
+     * @param theEvaluator The evaluation to use.
+     */
+    public void setEvaluator(Evaluator theEvaluator) {
+        for (SearchEngine engine : myEngines) {
+            engine.setEvaluator(theEvaluator);
+        }
+    }
+
+    /**
+     * Gives every worker the position cache (see SearchEngine.setCache()).
+     *
+     * @param theCache The cache, or null for none.
+     * @param theMinDepth The shallowest remaining depth at which the cache is used.
+     */
+    public void setCache(PositionCache theCache, int theMinDepth) {
+        for (SearchEngine engine : myEngines) {
+            engine.setCache(theCache, theMinDepth);
+        }
+    }
+
+    /**
+     * Gives the main worker an endgame solver (see SearchEngine.setSolver()). A proven result covers
+     * every remaining ply, so it is never outdone by a helper's deeper iteration.
+     *
+     * @param theSolver The solver, or null for none.
+     * @param theEmptyCells The most empty cells a position may have for the solver to take it on.
+     */
+    public void setSolver(EndgameSolver theSolver, int theEmptyCells) {
+        myEngines[0].setSolver(theSolver, theEmptyCells);
+    }
+
+    /**
+     * Returns the number of positions visited by all workers during the last search.
+     *
+     * @return The total node count.
+     */
+    public long getNodes() {
+        long nodes = 0;
+        for (SearchEngine engine : myEngines) {
+            nodes += engine.getNodes();
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the counters of the last search, added up over all workers. Each worker counts on its own
+     * while searching, so they are only merged here, once the search is over.
+     *
+     * @return The statistics of the last search.
+     */
+    public SearchStats getStats() {
+        SearchStats stats = myEngines[0].getStats();
+        for (int i = 1; i < myEngines.length; i++) {
+            stats = stats.add(myEngines[i].getStats());
+        }
+        return stats;
+    }
+
+    public int getThreads() {
+        return myEngines.length;
+    }
+
+    public TranspositionTable getTable() {
+        return myTable;
+    }
+
+    /**
+     * Shuts the worker threads down. The search cannot be used afterwards.
+     */
+    public void shutdown() {
+        stop();
+        myPool.shutdown();
+    }
+
+    /**
+     * Waits for a worker to finish.
+     *
+     * @param theTask The worker's task.
+     * @return The worker's result.
+     * @throws IllegalStateException Thrown if the worker failed.
+     */
+    private static SearchResult join(ForkJoinTask<SearchResult> theTask) throws IllegalStateException {
+        try {
+            return theTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the search.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search worker failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Reports how the node rate scales with the number of threads. Each thread count from 1 up to the
+     * number of processors (doubling each time) searches the same positions for the same time on a
+     * fresh table.
+     *
+     * @param theArgs Optional: the time per position in milliseconds and the maximum thread count.
+     */
+    public static void main(String[] theArgs) {
+        long millis = theArgs.length > 0 ? Long.parseLong(theArgs[0]) : 2000;
+        int maxThreads = theArgs.length > 1 ? Integer.parseInt(theArgs[1])
+                                            : Runtime.getRuntime().availableProcessors();
+        String[][] openings = {{"1/5 2L", "4/5 1R"}, {"1/1 1R", "2/3 4L", "3/5 2R", "4/9 3L"}};
+
+        System.out.println("threads      nodes        nps  speedup");
+        double baseNps = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(64));
+            long nodes = 0;
+            long elapsed = 0;
+            for (String[] opening : openings) {
+                BitBoard board = new BitBoard();
+                int color = BitBoard.WHITE;
+                for (String move : opening) {
+                    board.makeMove(Move.parse(move), color);
+                    color = 1 - color;
+                }
+                long start = System.nanoTime();
+                search.searchTimed(board, color, millis, BitBoard.CELLS);
+                elapsed += System.nanoTime() - start;
+                nodes += search.getNodes();
+            }
+            search.shutdown();
+
+            double nps = nodes / (elapsed / 1e9);
+            if (threads == 1) {
+                baseNps = nps;
+            }
+            System.out.printf("%7d %10d %10.0f %8.2f%n", threads, nodes, nps, nps / baseNps);
+            if (threads >= maxThreads) {
+                break;
+            }
+        }
+    }
+
+}
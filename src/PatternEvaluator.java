@@ -0,0 +1,140 @@
+/**
+ * PatternEvaluator.java
+ *
+ * The default evaluation of the computer player. Each of the 32 five in a row windows (see WinLines)
+ * is scored for both players, along with pieces that no rotation can move:
+ *
+ *   - an open window, holding k pieces of one player and none of the other, is worth open.k,
+ *   - a blocked window, holding k pieces of one player and some of the other, is worth blocked.k,
+ *     since a rotation may still move the other player's pieces out of it,
+ *   - each piece on the center of a Block, the one cell a rotation never moves, is worth center,
+ *   - having two or more different cells that each complete an open window of four is worth
+ *     doubleThreat, as a single reply rarely stops both.
+ *
+ * The score is the player to move's total minus the opponent's. Weights are read from the engine
+ * settings under "eval." (for example eval.open.3 or eval.center), so they can be tuned without a
+ * rebuild.
+ */
+public class PatternEvaluator implements Evaluator {
+
+    /**
+     * Prefix of the settings holding the weights.
+     */
+    public static final String PREFIX = "eval.";
+
+    /**
+     * Cells at the center of each Block.
+     */
+    static final long CENTERS = 1L << 4 | 1L << 13 | 1L << 22 | 1L << 31;
+
+    /* Default weights of open and blocked windows by the number of pieces in them. */
+    private static final int[] DEFAULT_OPEN = {0, 1, 4, 16, 64};
+    private static final int[] DEFAULT_BLOCKED = {0, 0, 1, 2, 3};
+
+    /* Weights of open windows by the number of pieces in them. A full window is a win, scored by the search. */
+    private final int[] myOpen = new int[6];
+
+    /* Weights of blocked windows by the number of pieces of the scored player in them. */
+    private final int[] myBlocked = new int[6];
+
+    /* Weight of a piece on the center of a Block. */
+    private final int myCenter;
+
+    /* Weight of two or more cells each completing an open window of four. */
+    private final int myDoubleThreat;
+
+    /**
+     * Default constructor, uses the default weights.
+     */
+    public PatternEvaluator() {
+        this(new EngineConfig());
+    }
+
+    /**
+     * Creates an evaluator with the weights found in the engine settings, using the default weight for
+     * every weight that is not set.
+     *
+     * @param theConfig The engine settings.
+     */
+    public PatternEvaluator(EngineConfig theConfig) {
+        for (int i = 1; i < 5; i++) {
+            myOpen[i] = theConfig.getInt(PREFIX + "open." + i, DEFAULT_OPEN[i]);
+            myBlocked[i] = theConfig.getInt(PREFIX + "blocked." + i, DEFAULT_BLOCKED[i]);
+        }
+        myCenter = theConfig.getInt(PREFIX + "center", 3);
+        myDoubleThreat = theConfig.getInt(PREFIX + "doubleThreat", 200);
+    }
+
+    @Override
+    public int evaluate(BitBoard theBoard, int theColor) {
+        long white = theBoard.getPieces(BitBoard.WHITE);
+        long black = theBoard.getPieces(BitBoard.BLACK);
+        IncrementalEvaluation tracked = theBoard.getEvaluation();
+        boolean isTracked = tracked != null && tracked.getEvaluator() == this;
+
+        int score = 0;
+        if (isTracked) {
+            score = tracked.getTotal();
+        } else {
+            for (long window : WinLines.WINDOWS) {
+                score += windowScore(Long.bitCount(white & window), Long.bitCount(black & window));
+            }
+        }
+        score += myCenter * (Long.bitCount(white & CENTERS) - Long.bitCount(black & CENTERS));
+        // A double threat needs two open fours, which a tracked board counts as it goes.
+        if ((!isTracked || tracked.getOpenFours(BitBoard.WHITE) > 1) && Long.bitCount(threats(white, black)) > 1) {
+            score += myDoubleThreat;
+        }
+        if ((!isTracked || tracked.getOpenFours(BitBoard.BLACK) > 1) && Long.bitCount(threats(black, white)) > 1) {
+            score -= myDoubleThreat;
+        }
+        return theColor == BitBoard.WHITE ? score : -score;
+    }
+
+    /**
+     * Attaches an IncrementalEvaluation to the board, so the windows are scored as the search plays.
+     *
+     * @param theBoard The board the search is about to play on.
+     */
+    @Override
+    public void attach(BitBoard theBoard) {
+        theBoard.setEvaluation(new IncrementalEvaluation(this, theBoard));
+    }
+
+    /**
+     * Scores one window.
+     *
+     * @param theWhite The number of white pieces in the window.
+     * @param theBlack The number of black pieces in the window.
+     * @return The score of the window, from white's point of view.
+     */
+    int windowScore(int theWhite, int theBlack) {
+        if (theBlack == 0) {
+            return myOpen[theWhite];
+        } else if (theWhite == 0) {
+            return -myOpen[theBlack];
+        }
+        return myBlocked[theWhite] - myBlocked[theBlack];
+    }
+
+    /**
+     * Finds the empty cells that complete an open window of four.
+     *
+     * @param theMine The bitboard of the player to find threats of.
+     * @param theTheirs The bitboard of the other player.
+     * @return The bits of the cells completing one of the player's open fours.
+     */
+    private static long threats(long theMine, long theTheirs) {
+        long cells = 0L;
+        if (Long.bitCount(theMine) < 4) {
+            return cells;
+        }
+        for (long window : WinLines.WINDOWS) {
+            if ((theTheirs & window) == 0 && Long.bitCount(theMine & window) == 4) {
+                cells |= window & ~theMine;
+            }
+        }
+        return cells;
+    }
+
+}
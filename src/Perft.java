@@ -0,0 +1,315 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Perft.java
+ *
+ * Move generation check and benchmark. Perft counts the move sequences of a given length from a
+ * position, the leaves of the full game tree to that depth. The counts are easy to get right by brute
+ * force, so comparing them between board implementations catches move generation bugs, and counting
+ * them as fast as possible measures raw move generation speed.
+ *
+ * A game ends as soon as a player has five in a row or the board is full, so finished positions have no
+ * children. The last ply is bulk counted: a position one ply from the end adds its number of moves
+ * without playing them. Perft can also count distinct children only (see
+ * BitBoard.generateDistinctMoves()), count the distinct positions at a depth, optionally up to symmetry,
+ * and split the count per root move. Root moves are shared out over a pool of threads.
+ */
+public class Perft {
+
+    /* The pool running the root moves. */
+    private ForkJoinPool myPool;
+
+    /* Whether moves leading to the same child are counted once. */
+    private boolean myDistinct;
+
+    /**
+     * Creates a perft counter.
+     *
+     * @param theThreads The number of threads counting root moves, at least 1.
+     * @throws IllegalArgumentException Thrown if the number of threads is less than 1.
+     */
+    public Perft(int theThreads) throws IllegalArgumentException {
+        if (theThreads < 1) {
+            throw new IllegalArgumentException("Perft needs at least one thread.");
+        }
+        myPool = new ForkJoinPool(theThreads);
+    }
+
+    /**
+     * Turns counting only moves that lead to distinct children on or off.
+     *
+     * @param isDistinct True to count moves with generateDistinctMoves() instead of generateMoves().
+     */
+    public void setDistinct(boolean isDistinct) {
+        myDistinct = isDistinct;
+    }
+
+    /**
+     * Counts the move sequences of a given length.
+     *
+     * @param theBoard The position to count from. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theDepth The length of the sequences.
+     * @return The number of sequences.
+     */
+    public long count(BitBoard theBoard, int theColor, int theDepth) {
+        long total = 0;
+        for (long nodes : divide(theBoard, theColor, theDepth).values()) {
+            total += nodes;
+        }
+        return theDepth == 0 ? 1 : total;
+    }
+
+    /**
+     * Counts the move sequences of a given length split per root move.
+     *
+     * @param theBoard The position to count from. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theDepth The length of the sequences, at least 1.
+     * @return The number of sequences starting with each root move, in generation order.
+     */
+    public LinkedHashMap<Move, Long> divide(BitBoard theBoard, int theColor, int theDepth) {
+        LinkedHashMap<Move, Long> counts = new LinkedHashMap<>();
+        if (theDepth < 1 || isOver(theBoard)) {
+            return counts;
+        }
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int count = generate(theBoard, theColor, moves);
+
+        ArrayList<ForkJoinTask<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BitBoard board = new BitBoard(theBoard);
+            board.makeMove(moves[i], theColor);
+            tasks.add(myPool.submit(() -> perft(board, 1 - theColor, theDepth - 1,
+                                                new int[theDepth][BitBoard.MAX_MOVES])));
+        }
+        for (int i = 0; i < count; i++) {
+            counts.put(Move.decode(moves[i]), join(tasks.get(i)));
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the distinct positions a given number of plies away. Positions reached by different move
+     * orders are counted once, and with symmetry so are the symmetric images of a position.
+     *
+     * @param theBoard The position to count from. It is not changed.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theDepth The number of plies.
+     * @param isCanonical True to count positions up to symmetry (see Symmetry).
+     * @return The number of distinct positions.
+     */
+    public long countPositions(BitBoard theBoard, int theColor, int theDepth, boolean isCanonical) {
+        ArrayList<BitBoard> level = new ArrayList<>();
+        level.add(new BitBoard(theBoard));
+        int[] moves = new int[BitBoard.MAX_MOVES];
+        int color = theColor;
+        for (int ply = 0; ply < theDepth; ply++) {
+            ArrayList<BitBoard> next = new ArrayList<>();
+            HashSet<Long> seen = new HashSet<>();
+            for (BitBoard board : level) {
+                if (isOver(board)) {
+                    continue;
+                }
+                int count = board.generateDistinctMoves(moves, color);
+                for (int i = 0; i < count; i++) {
+                    board.makeMove(moves[i], color);
+                    if (seen.add(isCanonical ? Symmetry.canonicalHash(board) : board.hash())) {
+                        next.add(new BitBoard(board));
+                    }
+                    board.unmakeMove(moves[i]);
+                }
+            }
+            level = next;
+            color = 1 - color;
+        }
+        return level.size();
+    }
+
+    /**
+     * Counts the move sequences of a given length on the original Board, the reference the BitBoard
+     * counts are checked against. Single threaded and slow.
+     *
+     * @param theBoard The position to count from. It is not changed.
+     * @param thePlayer The player to move, "W" or "B".
+     * @param theDepth The length of the sequences.
+     * @return The number of sequences.
+     */
+    public static long countBoard(Board theBoard, String thePlayer, int theDepth) {
+        if (theDepth == 0) {
+            return 1;
+        } else if (theBoard.getState() != BitBoard.ONGOING) {
+            return 0;
+        }
+        ArrayList<Move> moves = theBoard.getValidMoves();
+        if (theDepth == 1) {
+            return moves.size();
+        }
+        String other = thePlayer.equals("W") ? "B" : "W";
+        long nodes = 0;
+        for (Move move : moves) {
+            theBoard.makeMove(move, thePlayer);
+            nodes += countBoard(theBoard, other, theDepth - 1);
+            theBoard.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    /**
+     * Shuts the counting threads down. The counter cannot be used afterwards.
+     */
+    public void shutdown() {
+        myPool.shutdown();
+    }
+
+    /**
+     * Counts the move sequences of a given length on one thread.
+     *
+     * @param theBoard The position to count from. It is played on but restored.
+     * @param theColor The color of the player to move.
+     * @param theDepth The length of the sequences.
+     * @param theMoves A move buffer for each remaining ply.
+     * @return The number of sequences.
+     */
+    private long perft(BitBoard theBoard, int theColor, int theDepth, int[][] theMoves) {
+        if (theDepth == 0) {
+            return 1;
+        } else if (isOver(theBoard)) {
+            return 0;
+        }
+        int[] moves = theMoves[theDepth];
+        int count = generate(theBoard, theColor, moves);
+        if (theDepth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            theBoard.makeMove(moves[i], theColor);
+            nodes += perft(theBoard, 1 - theColor, theDepth - 1, theMoves);
+            theBoard.unmakeMove(moves[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Generates the moves perft counts.
+     *
+     * @param theBoard The position.
+     * @param theColor The color of the player to move.
+     * @param theMoves The buffer to fill.
+     * @return The number of moves.
+     */
+    private int generate(BitBoard theBoard, int theColor, int[] theMoves) {
+        return myDistinct ? theBoard.generateDistinctMoves(theMoves, theColor) : theBoard.generateMoves(theMoves);
+    }
+
+    /**
+     * Checks whether the game is over in a position.
+     *
+     * @param theBoard The position.
+     * @return True if a player has won or the game is drawn.
+     */
+    private static boolean isOver(BitBoard theBoard) {
+        return theBoard.getState() != BitBoard.ONGOING;
+    }
+
+    /**
+     * Waits for a root move to be counted.
+     *
+     * @param theTask The counting task.
+     * @return The count.
+     * @throws IllegalStateException Thrown if the count failed.
+     */
+    private static long join(ForkJoinTask<Long> theTask) throws IllegalStateException {
+        try {
+            return theTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for perft.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Runs perft from the command line:
+     *
+     *   java Perft depth [-divide] [-distinct] [-positions] [-canonical] [-board] [-threads n] [moves...]
+     *
+     * The moves, in the notation of Move.toString() such as "2/3 4R" (quoted), are played from the
+     * empty board first, white moving first. -positions counts distinct positions instead of move
+     * sequences, -canonical counts them up to symmetry, and -board also counts on the original Board
+     * and checks that the counts agree.
+     *
+     * @param theArgs The command line arguments.
+     */
+    public static void main(String[] theArgs) {
+        if (theArgs.length == 0) {
+            System.out.println("Usage: java Perft depth [-divide] [-distinct] [-positions] [-canonical] [-board]"
+                               + " [-threads n] [moves...]");
+            return;
+        }
+        int depth = Integer.parseInt(theArgs[0]);
+        boolean isDivide = false;
+        boolean isDistinct = false;
+        boolean isPositions = false;
+        boolean isCanonical = false;
+        boolean isBoard = false;
+        int threads = 1;
+        BitBoard board = new BitBoard();
+        Board reference = new Board();
+        int color = BitBoard.WHITE;
+        for (int i = 1; i < theArgs.length; i++) {
+            switch (theArgs[i]) {
+                case "-divide":    isDivide = true; break;
+                case "-distinct":  isDistinct = true; break;
+                case "-positions": isPositions = true; break;
+                case "-canonical": isPositions = true; isCanonical = true; break;
+                case "-board":     isBoard = true; break;
+                case "-threads":   threads = Integer.parseInt(theArgs[++i]); break;
+                default:
+                    Move move = Move.parse(theArgs[i]);
+                    board.makeMove(move, color);
+                    reference.makeMove(move, BitBoard.playerOf(color));
+                    color = 1 - color;
+            }
+        }
+
+        Perft perft = new Perft(threads);
+        perft.setDistinct(isDistinct);
+        long start = System.nanoTime();
+        long nodes;
+        if (isPositions) {
+            nodes = perft.countPositions(board, color, depth, isCanonical);
+        } else if (isDivide) {
+            nodes = 0;
+            for (Map.Entry<Move, Long> entry : perft.divide(board, color, depth).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+                nodes += entry.getValue();
+            }
+        } else {
+            nodes = perft.count(board, color, depth);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        perft.shutdown();
+        System.out.printf("perft(%d) = %d in %.3f s, %.0f nodes/s%n", depth, nodes, seconds, nodes / seconds);
+
+        if (isBoard) {
+            start = System.nanoTime();
+            long expected = countBoard(reference, BitBoard.playerOf(color), depth);
+            seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Board perft(%d) = %d in %.3f s, %.0f nodes/s%n", depth, expected, seconds,
+                              expected / seconds);
+            if (!isPositions && !isDistinct && expected != nodes) {
+                System.out.println("MISMATCH");
+            }
+        }
+    }
+
+}
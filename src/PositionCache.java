@@ -0,0 +1,196 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PositionCache.java
+ *
+ * Search results kept in a memory mapped file, so they outlive the process and are shared by every
+ * process on the host that maps the same file. A search consults it when its TranspositionTable misses,
+ * and stores its deeper results in it, so an engine restarted on positions it has seen before finds them
+ * already searched. Opening the cache only maps the file: its pages are read by the operating system as
+ * they are touched, never copied onto the heap, and are shared with the other processes through the page
+ * cache.
+ *
+ * The layout mirrors TranspositionTable: a fixed number of slots, a power of two, each holding the key
+ * XOR the data word followed by the data word (see TranspositionTable for its fields), addressed by the
+ * low bits of the key. A slot half written by another thread or process fails the XOR check and reads as
+ * a miss. There are no search generations across processes: a shallower result never overwrites a deeper
+ * one for the same position, but a result for another position always replaces what the slot held, so
+ * the cache keeps taking in new positions. Scores depend on the evaluation, so processes sharing a
+ * cache should use the same evaluation weights.
+ *
+ * File layout: a 16 byte header holding a magic number and the number of slots, written big endian by
+ * RandomAccessFile, then the slots of 16 bytes each, little endian.
+ */
+public class PositionCache {
+
+    /**
+     * Size of a new cache when none is configured, in megabytes.
+     */
+    public static final int DEFAULT_SIZE_MB = 64;
+
+    /* First bytes of a cache file, "PCH1". */
+    private static final int MAGIC = 0x50434831;
+
+    /* Bytes before the first slot. */
+    private static final int HEADER_BYTES = 16;
+
+    /* Bytes used by one slot. */
+    private static final int ENTRY_BYTES = 16;
+
+    /* Most slots a cache may have, so the whole file fits in one mapping. */
+    private static final int MAX_ENTRIES = 1 << 26;
+
+    /* The mapped file. */
+    private final MappedByteBuffer myBuffer;
+
+    /* Number of slots minus one, used to map a key to its slot. */
+    private final int myIndexMask;
+
+    /* Statistics of this process. */
+    private final LongAdder myProbes = new LongAdder();
+    private final LongAdder myHits = new LongAdder();
+    private final LongAdder myStores = new LongAdder();
+
+    /**
+     * Opens a cache file, creating it if it does not exist. An existing cache keeps its own size.
+     *
+     * @param theFileName The path of the cache file.
+     * @param theSizeMb The size of a new cache, in megabytes. The number of slots is rounded down to a
+     *                  power of two.
+     * @throws IllegalArgumentException Thrown if the size is less than one megabyte.
+     * @throws IllegalStateException Thrown if the file is not a cache or cannot be mapped.
+     */
+    public PositionCache(String theFileName, int theSizeMb) throws IllegalArgumentException, IllegalStateException {
+        if (theSizeMb < 1) {
+            throw new IllegalArgumentException("Position cache size must be at least 1 MB.");
+        }
+        long slots = Long.highestOneBit((long) theSizeMb * 1024 * 1024 / ENTRY_BYTES);
+        int entries = (int) Math.min(slots, MAX_ENTRIES);
+        try (RandomAccessFile file = new RandomAccessFile(new File(theFileName), "rw");
+             FileChannel channel = file.getChannel()) {
+            // Two processes creating the cache at once must agree on its size.
+            FileLock lock = channel.lock();
+            try {
+                if (file.length() >= HEADER_BYTES) {
+                    if (file.readInt() != MAGIC) {
+                        throw new IllegalStateException(theFileName + " is not a position cache.");
+                    }
+                    entries = file.readInt();
+                    if (entries <= 0 || Integer.bitCount(entries) != 1 || entries > MAX_ENTRIES
+                        || file.length() != HEADER_BYTES + (long) entries * ENTRY_BYTES) {
+                        throw new IllegalStateException(theFileName + " is a damaged position cache.");
+                    }
+                } else {
+                    file.setLength(HEADER_BYTES + (long) entries * ENTRY_BYTES);
+                    file.seek(0);
+                    file.writeInt(MAGIC);
+                    file.writeInt(entries);
+                }
+            } finally {
+                lock.release();
+            }
+            // The mapping stays valid after the channel is closed.
+            long length = HEADER_BYTES + (long) entries * ENTRY_BYTES;
+            myBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            myBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open position cache " + theFileName, e);
+        }
+        myIndexMask = entries - 1;
+    }
+
+    /**
+     * Looks up the entry stored for a position.
+     *
+     * @param theKey The hash of the position, as used for the TranspositionTable.
+     * @return The data word of the entry, read with the TranspositionTable accessors, or 0 if the
+     *         position is not in the cache.
+     */
+    public long probe(long theKey) {
+        myProbes.increment();
+        int offset = offsetOf(theKey);
+        long check = myBuffer.getLong(offset);
+        long data = myBuffer.getLong(offset + 8);
+        if (data == 0 || (check ^ data) != theKey) {
+            return 0;
+        }
+        myHits.increment();
+        return data;
+    }
+
+    /**
+     * Stores a search result, unless the slot holds a deeper result for the same position.
+     *
+     * @param theKey The hash of the position.
+     * @param theDepth The depth the position was searched to.
+     * @param theBound TranspositionTable.EXACT, LOWER or UPPER.
+     * @param theScore The score of the position.
+     * @param theMove The packed best move (see Move.encode()), or -1 for none.
+     */
+    public void store(long theKey, int theDepth, int theBound, int theScore, int theMove) {
+        int offset = offsetOf(theKey);
+        long old = myBuffer.getLong(offset + 8);
+        if (old != 0 && (myBuffer.getLong(offset) ^ old) == theKey && TranspositionTable.depthOf(old) > theDepth) {
+            return;
+        }
+        long data = TranspositionTable.pack(theDepth, theBound, theScore, theMove, 0);
+        myBuffer.putLong(offset, theKey ^ data);
+        myBuffer.putLong(offset + 8, data);
+        myStores.increment();
+    }
+
+    /**
+     * Writes the changes made through this process out to the file.
+     */
+    public void flush() {
+        myBuffer.force();
+    }
+
+    /**
+     * Empties the cache, for every process sharing it.
+     */
+    public void clear() {
+        for (int offset = HEADER_BYTES; offset < myBuffer.capacity(); offset += 8) {
+            myBuffer.putLong(offset, 0L);
+        }
+    }
+
+    public int getEntries() {
+        return myIndexMask + 1;
+    }
+
+    public long getProbes() {
+        return myProbes.sum();
+    }
+
+    public long getHits() {
+        return myHits.sum();
+    }
+
+    public long getStores() {
+        return myStores.sum();
+    }
+
+    public String toString() {
+        return String.format("entries=%d probes=%d hits=%d stores=%d", getEntries(), getProbes(), getHits(),
+                             getStores());
+    }
+
+    /**
+     * Finds the slot of a key.
+     *
+     * @param theKey The hash of the position.
+     * @return The byte offset of the slot in the file.
+     */
+    private int offsetOf(long theKey) {
+        return HEADER_BYTES + ((int) theKey & myIndexMask) * ENTRY_BYTES;
+    }
+
+}
@@ -0,0 +1,260 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+/**
+ * ProtocolServer.java
+ *
+ * Line based engine protocol over standard input and output, in the spirit of UCI, so tournament
+ * managers and scripts can drive one long lived engine instead of starting a JVM per game. Moves are
+ * written as Move.toString() writes them, for example "2/3 4R". Commands:
+ *
+ *   isready                            answers "readyok"
+ *   newgame                            forgets what earlier searches learned
+ *   position startpos [moves m...]     the empty board, then the moves, white moving first
+ *   position <36 cells> [W|B] [moves m...]
+ *                                      a position as written by BitBoard.toString(), with the player to
+ *                                      move (by default white if both have as many pieces, else black)
+ *   go [depth n] [movetime ms] [nodes n]
+ *                                      searches the current position in the background, printing
+ *                                      "info depth .. score .. nodes .. nps .. time .. pv .." after every
+ *                                      iteration, then "info string stats .." with the counters of the
+ *                                      whole search (see SearchStats) and "bestmove <move>" at the end
+ *   stop                               ends the search in progress, which then prints its bestmove
+ *   quit                               stops any search and exits
+ *
+ * Malformed commands are answered with an "info string" line and otherwise ignored.
+ */
+public class ProtocolServer {
+
+    /* The engine running the searches. */
+    private Engine myEngine;
+
+    /* Where answers are written. Written to from the search thread too, always while holding it. */
+    private PrintStream myOut;
+
+    /* The position set by the last position command. */
+    private BitBoard myBoard = new BitBoard();
+
+    /* The color of the player to move in the position. */
+    private int myColor = BitBoard.WHITE;
+
+    /* The thread running the current search, null when there is none. */
+    private Thread mySearch;
+
+    /* Whether the current search was asked to stop. A stop arriving before the search thread has reached
+     * the engine would be lost, so the search checks this after every iteration too. */
+    private volatile boolean myStopRequested;
+
+    /**
+     * ProtocolServer object constructor.
+     *
+     * @param theEngine The engine to search with.
+     * @param theOut Where to write answers.
+     */
+    public ProtocolServer(Engine theEngine, PrintStream theOut) {
+        myEngine = theEngine;
+        myOut = theOut;
+    }
+
+    /**
+     * Reads and answers commands until quit or the end of the input. A search still running at the end
+     * of the input is allowed to finish.
+     *
+     * @param theIn The commands, one per line.
+     * @throws IOException Thrown if reading the commands fails.
+     */
+    public void run(BufferedReader theIn) throws IOException {
+        String line;
+        while ((line = theIn.readLine()) != null) {
+            if (!handle(line.trim())) {
+                myStopRequested = true;
+                myEngine.stop();
+                break;
+            }
+        }
+        waitForSearch();
+    }
+
+    /**
+     * Answers one command.
+     *
+     * @param theCommand The command line.
+     * @return False if the command was quit.
+     */
+    private boolean handle(String theCommand) {
+        String[] words = theCommand.split("\\s+");
+        try {
+            switch (words[0]) {
+                case "":
+                    break;
+                case "isready":
+                    print("readyok");
+                    break;
+                case "newgame":
+                    waitForSearch();
+                    myEngine.clear();
+                    break;
+                case "position":
+                    waitForSearch();
+                    setPosition(words);
+                    break;
+                case "go":
+                    waitForSearch();
+                    go(words);
+                    break;
+                case "stop":
+                    myStopRequested = true;
+                    myEngine.stop();
+                    break;
+                case "quit":
+                    return false;
+                default:
+                    print("info string unknown command " + words[0]);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            print("info string error " + e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Sets up the position of a position command. The current position is kept if the command is not well
+     * formed.
+     *
+     * @param theWords The words of the command.
+     * @throws IllegalArgumentException Thrown if the command is not well formed or a move is illegal.
+     */
+    private void setPosition(String[] theWords) throws IllegalArgumentException {
+        if (theWords.length < 2) {
+            throw new IllegalArgumentException("position needs startpos or a board.");
+        }
+        BitBoard board = theWords[1].equals("startpos") ? new BitBoard() : new BitBoard(theWords[1]);
+        int white = Long.bitCount(board.getPieces(BitBoard.WHITE));
+        int color = white > Long.bitCount(board.getPieces(BitBoard.BLACK)) ? BitBoard.BLACK : BitBoard.WHITE;
+
+        int index = 2;
+        if (index < theWords.length && !theWords[index].equals("moves")) {
+            color = BitBoard.colorOf(theWords[index++]);
+        }
+        if (index < theWords.length) {
+            if (!theWords[index].equals("moves") || (theWords.length - index - 1) % 2 != 0) {
+                throw new IllegalArgumentException("Moves are written like 2/3 4R.");
+            }
+            for (index++; index < theWords.length; index += 2) {
+                Move move = Move.parse(theWords[index] + " " + theWords[index + 1]);
+                if (!board.isValidMove(move.getPlayBlock(), move.getPosition())) {
+                    throw new IllegalArgumentException("Illegal move " + move + ".");
+                }
+                board.makeMove(move, color);
+                color = 1 - color;
+            }
+        }
+        myBoard = board;
+        myColor = color;
+    }
+
+    /**
+     * Starts the search of a go command on a background thread.
+     *
+     * @param theWords The words of the command.
+     * @throws IllegalArgumentException Thrown if a limit is not well formed.
+     */
+    private void go(String[] theWords) throws IllegalArgumentException {
+        int depth = 0;
+        long millis = 0;
+        long nodes = 0;
+        for (int i = 1; i < theWords.length; i += 2) {
+            if (i + 1 == theWords.length) {
+                throw new IllegalArgumentException(theWords[i] + " needs a value.");
+            }
+            switch (theWords[i]) {
+                case "depth":    depth = Integer.parseInt(theWords[i + 1]); break;
+                case "movetime": millis = Long.parseLong(theWords[i + 1]); break;
+                case "nodes":    nodes = Long.parseLong(theWords[i + 1]); break;
+                default:
+                    throw new IllegalArgumentException("Unknown limit " + theWords[i] + ".");
+            }
+        }
+        SearchLimits limits = new SearchLimits(depth, millis, nodes);
+        BitBoard board = new BitBoard(myBoard);
+        int color = myColor;
+
+        myStopRequested = false;
+        mySearch = new Thread(() -> {
+            // Whatever happens, a bestmove line ends the search, so a controller waiting for it never hangs.
+            Move best = null;
+            try {
+                EngineResult result = myEngine.analyze(board, color, limits, this::iterationDone);
+                print("info string stats " + result.getStats());
+                best = result.getMove();
+            } catch (RuntimeException e) {
+                print("info string error " + e);
+            }
+            print("bestmove " + (best != null ? best : "none"));
+        }, "search");
+        mySearch.start();
+    }
+
+    /**
+     * Prints the info line of a completed iteration, and passes on a stop the engine may have missed.
+     *
+     * @param theResult The result of the iteration.
+     */
+    private void iterationDone(EngineResult theResult) {
+        StringBuilder line = new StringBuilder();
+        line.append("info depth ").append(theResult.getDepth())
+            .append(" score ").append(theResult.getScore())
+            .append(" nodes ").append(theResult.getNodes())
+            .append(" nps ").append(theResult.getNodesPerSecond())
+            .append(" time ").append(theResult.getTimeMillis())
+            .append(" pv");
+        for (Move move : theResult.getPrincipalVariation()) {
+            line.append(' ').append(move);
+        }
+        print(line.toString());
+        if (myStopRequested) {
+            myEngine.stop();
+        }
+    }
+
+    /**
+     * Waits for the search in progress, if any, to print its best move.
+     */
+    private void waitForSearch() {
+        if (mySearch == null) {
+            return;
+        }
+        try {
+            mySearch.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        mySearch = null;
+    }
+
+    /**
+     * Writes one line of output.
+     *
+     * @param theLine The line.
+     */
+    private void print(String theLine) {
+        synchronized (myOut) {
+            myOut.println(theLine);
+            myOut.flush();
+        }
+    }
+
+    /**
+     * Serves the protocol on standard input and output, with the settings of pentago.properties.
+     *
+     * @param theArgs Not used.
+     * @throws IOException Thrown if reading standard input fails.
+     */
+    public static void main(String[] theArgs) throws IOException {
+        Engine engine = new Engine(EngineConfig.load(EngineConfig.DEFAULT_FILE));
+        new ProtocolServer(engine, System.out).run(new BufferedReader(new InputStreamReader(System.in)));
+    }
+
+}
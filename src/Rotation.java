@@ -0,0 +1,88 @@
+/**
+ * Rotation.java
+ *
+ * Lookup tables for rotating a Block of a BitBoard. A Block's nine cells form a 9 bit occupancy pattern for
+ * each player, so every one of the 512 possible patterns is rotated once up front in both directions and a
+ * Block rotation on the board becomes a mask, a shift and one table lookup per player.
+ */
+public class Rotation {
+
+    /**
+     * Number of possible occupancy patterns of a Block for one player.
+     */
+    public static final int PATTERNS = 1 << BitBoard.BLOCK_CELLS;
+
+    /**
+     * For each position of a Block rotated to the right, the position it was taken from before the rotation.
+     */
+    static final int[] ROTATE_RIGHT_SOURCE = {6, 3, 0, 7, 4, 1, 8, 5, 2};
+
+    /**
+     * For each position of a Block rotated to the left, the position it was taken from before the rotation.
+     */
+    static final int[] ROTATE_LEFT_SOURCE = {2, 5, 8, 1, 4, 7, 0, 3, 6};
+
+    /**
+     * Each Block pattern rotated 90 degrees to the left.
+     */
+    private static final int[] LEFT = buildTable(ROTATE_LEFT_SOURCE);
+
+    /**
+     * Each Block pattern rotated 90 degrees to the right.
+     */
+    private static final int[] RIGHT = buildTable(ROTATE_RIGHT_SOURCE);
+
+    /**
+     * Rotates a Block pattern to the left.
+     *
+     * @param thePattern The 9 bit occupancy pattern of a Block.
+     * @return The pattern after the rotation.
+     */
+    public static int rotateLeft(int thePattern) {
+        return LEFT[thePattern];
+    }
+
+    /**
+     * Rotates a Block pattern to the right.
+     *
+     * @param thePattern The 9 bit occupancy pattern of a Block.
+     * @return The pattern after the rotation.
+     */
+    public static int rotateRight(int thePattern) {
+        return RIGHT[thePattern];
+    }
+
+    /**
+     * Rotates one Block of a player's bitboard.
+     *
+     * @param theBits The player's bitboard.
+     * @param theBlockNum The Block to be rotated (1 - 4).
+     * @param isRight True to rotate to the right, false to rotate to the left.
+     * @return The bitboard with the Block rotated.
+     */
+    public static long rotateBlock(long theBits, int theBlockNum, boolean isRight) {
+        int shift = (theBlockNum - 1) * BitBoard.BLOCK_CELLS;
+        int pattern = (int) ((theBits >>> shift) & BitBoard.BLOCK_MASK);
+        long rotated = isRight ? RIGHT[pattern] : LEFT[pattern];
+        return (theBits & ~(BitBoard.BLOCK_MASK << shift)) | (rotated << shift);
+    }
+
+    /**
+     * Rotates every possible Block pattern once.
+     *
+     * @param theSource For each position after the rotation, the position it is taken from.
+     * @return The rotated pattern for every pattern.
+     */
+    private static int[] buildTable(int[] theSource) {
+        int[] table = new int[PATTERNS];
+        for (int pattern = 0; pattern < PATTERNS; pattern++) {
+            int rotated = 0;
+            for (int i = 0; i < BitBoard.BLOCK_CELLS; i++) {
+                rotated |= ((pattern >>> theSource[i]) & 1) << i;
+            }
+            table[pattern] = rotated;
+        }
+        return table;
+    }
+
+}
@@ -0,0 +1,742 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * SearchEngine.java
+ *
+ * Recursive negamax alpha beta search over a BitBoard. Unlike GameTreeNode, no tree is built up front:
+ * children are generated while searching and played on a single board with makeMove()/unmakeMove(),
+ * so subtrees cut off by the alpha beta window are never generated at all. Moves are generated as packed
+ * ints into a buffer per ply, so walking the tree allocates nothing. Scores are always from the point of
+ * view of the player to move.
+ *
+ * Results are cached in a TranspositionTable keyed by the position's hash and the player to move, so
+ * transpositions are searched once and the best move stored for a position is tried first when it
+ * comes up again. Several engines may share one table. The order of the remaining moves is left to
+ * a pluggable MoveOrdering, HeuristicMoveOrdering by default, and positions at the leaves are scored by
+ * a pluggable Evaluator, PatternEvaluator by default.
+ *
+ * A PositionCache, if one is set, backs the table with results kept on disk: it is consulted when the
+ * table misses and written along with it, for positions with enough depth left to be worth it.
+ *
+ * Near the end of the game an EndgameSolver, if one is set, replaces the heuristic search with an exact
+ * one as long as the budget allows.
+ *
+ * With symmetry enabled the table is keyed by the canonical form of each position (see Symmetry), so
+ * the eight symmetric images of a position share one entry, and root moves leading to symmetric
+ * positions are only searched once.
+ *
+ * An engine is single threaded. ParallelSearch runs several engines as workers over a shared table;
+ * a worker leaves managing the table to ParallelSearch and, unless it is the main worker, searches
+ * the root moves in a different order and every other iteration one ply deeper so the workers spread
+ * out over the tree.
+ */
+public class SearchEngine {
+
+    /**
+     * Score of a won position. Wins found closer to the root score higher than wins found deeper.
+     */
+    public static final int WIN_SCORE = 100000;
+
+    /**
+     * Bound larger than any score the search can return.
+     */
+    public static final int INFINITY = 1000000;
+
+    /**
+     * Scores at or beyond this magnitude are forced wins or losses rather than evaluations.
+     */
+    public static final int WIN_THRESHOLD = WIN_SCORE - 1000;
+
+    /**
+     * Number of nodes searched between two looks at the clock.
+     */
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    /* Number of positions visited by the last search. */
+    private long myNodes;
+
+    /* Further counters of the last search, see SearchStats. */
+    private long myLeaves;
+    private long myCutoffs;
+    private long myFirstMoveCutoffs;
+    private long myTableHits;
+
+    /* Depth of the result of the last search. */
+    private int myDepth;
+
+    /* Time the last search took, in nanoseconds. */
+    private long myElapsed;
+
+    /* System.nanoTime() when the current search started. */
+    private long myStartTime;
+
+    /* Time the current search may take in nanoseconds, Long.MAX_VALUE when it is not timed. */
+    private long myBudget;
+
+    /* Set once the time is up or a stop was requested; the iteration in progress is then abandoned. */
+    private boolean myAborted;
+
+    /* Number of positions after which the search stops, Long.MAX_VALUE for no limit. */
+    private long myNodeLimit = Long.MAX_VALUE;
+
+    /* Told about every completed iteration, null for none. */
+    private SearchListener myListener;
+
+    /* Set from another thread to end the current search as soon as possible. */
+    private volatile boolean myStopRequested;
+
+    /* Index of the engine among the workers of a ParallelSearch, -1 for a standalone engine. */
+    private int myWorker;
+
+    /* Cache of search results, possibly shared with other engines. */
+    private TranspositionTable myTable;
+
+    /* Results kept on disk across processes, consulted when the table misses, or null for none. */
+    private PositionCache myCache;
+
+    /* Shallowest remaining depth at which the cache is consulted and written. */
+    private int myCacheDepth;
+
+    /* Proves the value of positions near the end of the game, or null for none. */
+    private EndgameSolver mySolver;
+
+    /* Most empty cells a position may have for the solver to take it on. */
+    private int mySolverCells;
+
+    /* Whether positions are keyed by their canonical form. */
+    private boolean myUseSymmetry;
+
+    /* Move buffer of each ply, filled with packed moves so the search does not allocate. */
+    private int[][] myMoves = new int[BitBoard.CELLS + 1][BitBoard.MAX_MOVES];
+
+    /* Decides the order moves are searched in. */
+    private MoveOrdering myOrdering;
+
+    /* Scores the positions at the leaves of the search. */
+    private Evaluator myEvaluator;
+
+    /**
+     * Default constructor, the engine gets a transposition table of its own with the default size.
+     */
+    public SearchEngine() {
+        this(new TranspositionTable());
+    }
+
+    /**
+     * Creates an engine that caches its results in the given transposition table.
+     *
+     * @param theTable The transposition table to use.
+     */
+    public SearchEngine(TranspositionTable theTable) {
+        this(theTable, -1);
+    }
+
+    /**
+     * Creates an engine that runs as one worker of a ParallelSearch.
+     *
+     * @param theTable The transposition table shared by the workers.
+     * @param theWorker The index of the worker, 0 being the main worker.
+     */
+    SearchEngine(TranspositionTable theTable, int theWorker) {
+        myTable = theTable;
+        myWorker = theWorker;
+        myOrdering = new HeuristicMoveOrdering();
+        myEvaluator = new PatternEvaluator();
+    }
+
+    /**
+     * Searches the board to a fixed depth and returns the best move for the player to move.
+     *
+     * @param theBoard The position to search. It is played on during the search but restored afterwards.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theDepth The number of plies to search, at least 1.
+     * @return The best move and its score, with a null move if the game is already over.
+     */
+    public SearchResult search(BitBoard theBoard, int theColor, int theDepth) {
+        begin(Long.MAX_VALUE);
+        IncrementalEvaluation previous = theBoard.getEvaluation();
+        myEvaluator.attach(theBoard);
+        try {
+            return finish(searchRoot(theBoard, theColor, theDepth, null));
+        } finally {
+            theBoard.setEvaluation(previous);
+        }
+    }
+
+    /**
+     * Iterative deepening search: searches to depth 1, 2, 3... until the time budget runs out and returns
+     * the best move of the last iteration that completed. Each iteration searches the best move of the
+     * previous one first. Depth 1 is always completed so there is always a move to play.
+     *
+     * @param theBoard The position to search. It is played on during the search but restored afterwards.
+     * @param theColor The color of the player to move, BitBoard.WHITE or BitBoard.BLACK.
+     * @param theTimeMillis The time the search may take, in milliseconds.
+     * @param theMaxDepth The deepest iteration to run.
+     * @return The result of the deepest completed iteration.
+     */
+    public SearchResult searchTimed(BitBoard theBoard, int theColor, long theTimeMillis, int theMaxDepth) {
+        begin(Long.MAX_VALUE);
+        IncrementalEvaluation previous = theBoard.getEvaluation();
+        myEvaluator.attach(theBoard);
+        try {
+            return finish(iterate(theBoard, theColor, theTimeMillis, theMaxDepth));
+        } finally {
+            theBoard.setEvaluation(previous);
+        }
+    }
+
+    /**
+     * Records the depth and time of a search that has ended, for getStats().
+     *
+     * @param theResult The result of the search.
+     * @return The result.
+     */
+    private SearchResult finish(SearchResult theResult) {
+        myDepth = theResult.getDepth();
+        myElapsed = System.nanoTime() - myStartTime;
+        return theResult;
+    }
+
+    /**
+     * The iterations of searchTimed().
+     *
+     * @param theBoard The position to search.
+     * @param theColor The color of the player to move.
+     * @param theTimeMillis The time the search may take, in milliseconds.
+     * @param theMaxDepth The deepest iteration to run.
+     * @return The result of the deepest completed iteration.
+     */
+    private SearchResult iterate(BitBoard theBoard, int theColor, long theTimeMillis, int theMaxDepth) {
+        int emptyCells = BitBoard.CELLS - Long.bitCount(theBoard.getOccupied());
+        int maxDepth = Math.max(1, Math.min(theMaxDepth, emptyCells));
+
+        SearchResult best = searchRoot(theBoard, theColor, 1, null);
+        iterationDone(theBoard, theColor, best);
+        if (best.getMove() == null) {
+            return best;
+        }
+        myBudget = theTimeMillis >= Long.MAX_VALUE / 1000000L ? Long.MAX_VALUE : theTimeMillis * 1000000L;
+        // The solver looks all the way to the end of the game, so it is only run when the depth limit does.
+        if (mySolver != null && emptyCells <= mySolverCells && theMaxDepth >= emptyCells
+            && Math.abs(best.getScore()) < WIN_THRESHOLD) {
+            SearchResult solved = solve(theBoard, theColor);
+            if (solved != null) {
+                iterationDone(theBoard, theColor, solved);
+                return solved;
+            }
+        }
+        for (int depth = 2; depth <= maxDepth && Math.abs(best.getScore()) < WIN_THRESHOLD; depth++) {
+            if (isOutOfBudget() || myStopRequested) {
+                break;
+            }
+            int searchDepth = myWorker > 0 ? Math.min(maxDepth, depth + (myWorker & 1)) : depth;
+            SearchResult result = searchRoot(theBoard, theColor, searchDepth, best.getMove());
+            if (myAborted) {
+                break;
+            }
+            best = result;
+            iterationDone(theBoard, theColor, best);
+        }
+
+        return best;
+    }
+
+    /**
+     * Runs the endgame solver on the root position with what is left of the budget.
+     *
+     * @param theBoard The position to search.
+     * @param theColor The color of the player to move.
+     * @return The proven best move, scored like a search result over all remaining plies, or null if the
+     *         solver gave up or proved a loss, which is better left to the search and the hope the
+     *         opponent goes wrong.
+     */
+    private SearchResult solve(BitBoard theBoard, int theColor) {
+        if (myStopRequested || isOutOfBudget()) {
+            return null;
+        }
+        long time = myBudget == Long.MAX_VALUE ? Long.MAX_VALUE : myBudget - (System.nanoTime() - myStartTime);
+        long nodes = myNodeLimit == Long.MAX_VALUE ? Long.MAX_VALUE : myNodeLimit - myNodes;
+        SearchResult solved = mySolver.solve(theBoard, theColor, time, nodes, () -> myStopRequested);
+        myNodes += mySolver.getNodes();
+        if (solved == null || solved.getMove() == null || solved.getScore() == EndgameSolver.LOSS) {
+            return null;
+        }
+        int score = solved.getScore() == EndgameSolver.WIN ? WIN_SCORE - solved.getDepth() : 0;
+        return new SearchResult(solved.getMove(), score, solved.getDepth());
+    }
+
+    /**
+     * Tells the listener, if there is one, about a completed iteration.
+     *
+     * @param theBoard The position being searched.
+     * @param theColor The color of the player to move.
+     * @param theResult The result of the iteration.
+     */
+    private void iterationDone(BitBoard theBoard, int theColor, SearchResult theResult) {
+        if (myListener != null) {
+            ArrayList<Move> line = getPrincipalVariation(theBoard, theColor, theResult.getMove(),
+                                                         theResult.getDepth());
+            long elapsed = (System.nanoTime() - myStartTime) / 1000000L;
+            myListener.iterationDone(new EngineResult(theResult, line, stats(theResult.getDepth(), elapsed)));
+        }
+    }
+
+    /**
+     * Asks the search running on this engine to stop. It returns as soon as possible with the result of
+     * its last completed iteration.
+     */
+    public void stop() {
+        myStopRequested = true;
+    }
+
+    /**
+     * Allows a worker engine that was stopped to search again. Standalone engines do this themselves at
+     * the start of every search.
+     */
+    void clearStop() {
+        myStopRequested = false;
+    }
+
+    /**
+     * Resets the engine's state at the start of a search.
+     *
+     * @param theBudget The time the search may take in nanoseconds.
+     */
+    private void begin(long theBudget) {
+        myNodes = 0;
+        myLeaves = 0;
+        myCutoffs = 0;
+        myFirstMoveCutoffs = 0;
+        myTableHits = 0;
+        myDepth = 0;
+        myElapsed = 0;
+        myStartTime = System.nanoTime();
+        myBudget = theBudget;
+        myAborted = false;
+        myOrdering.newSearch();
+        if (myWorker < 0) {
+            myStopRequested = false;
+            myTable.newSearch();
+        }
+    }
+
+    /**
+     * Checks whether the current search has used up its time or its node limit.
+     *
+     * @return True if the search should stop.
+     */
+    private boolean isOutOfBudget() {
+        return myNodes >= myNodeLimit || System.nanoTime() - myStartTime >= myBudget;
+    }
+
+    /**
+     * Searches every move of the root position.
+     *
+     * @param theBoard The position to search.
+     * @param theColor The color of the player to move.
+     * @param theDepth The number of plies to search.
+     * @param theFirstMove A move to search before all others, or null.
+     * @return The best move and its score. Meaningless if the search was aborted. If the game is already
+     *         over the move is null, with a depth of 0 and the final score.
+     */
+    private SearchResult searchRoot(BitBoard theBoard, int theColor, int theDepth, Move theFirstMove) {
+        myNodes++;
+        int state = theBoard.getState();
+        if (state != BitBoard.ONGOING) {
+            int score = state == BitBoard.DRAW ? 0 : state == BitBoard.winsOf(theColor) ? WIN_SCORE : -WIN_SCORE;
+            return new SearchResult(null, score, 0);
+        }
+        int symmetry = myUseSymmetry ? Symmetry.canonicalSymmetry(theBoard) : 0;
+        long key = positionKey(theBoard, theColor, symmetry);
+        int[] moves = myMoves[0];
+        int count = theBoard.generateDistinctMoves(moves, theColor);
+        int firstMove = -1;
+        if (theFirstMove != null) {
+            firstMove = theFirstMove.encode();
+        } else {
+            long entry = myTable.probe(key);
+            if (entry != 0 && TranspositionTable.moveOf(entry) >= 0) {
+                firstMove = fromCanonical(TranspositionTable.moveOf(entry), symmetry);
+            }
+        }
+        myOrdering.order(theBoard, theColor, moves, count, firstMove, 0);
+        if (myWorker > 0 && count > 2) {
+            rotate(moves, 1, count, myWorker * 37);
+        }
+
+        HashSet<Long> searched = new HashSet<>();
+        int bestMove = -1;
+        int bestScore = -INFINITY;
+        int alpha = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            theBoard.makeMove(move, theColor);
+            if (myUseSymmetry && !searched.add(Symmetry.canonicalHash(theBoard))) {
+                theBoard.unmakeMove(move);
+                continue;
+            }
+            int score = -negamax(theBoard, 1 - theColor, theDepth - 1, 1, -INFINITY, -alpha);
+            theBoard.unmakeMove(move);
+            if (myAborted) {
+                break;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                }
+            }
+        }
+
+        if (!myAborted && bestMove >= 0) {
+            myTable.store(key, theDepth, TranspositionTable.EXACT, toTable(bestScore, 0),
+                          toCanonical(bestMove, symmetry));
+        }
+        return new SearchResult(bestMove >= 0 ? Move.decode(bestMove) : null, bestScore, theDepth);
+    }
+
+    /**
+     * Negamax search with alpha beta pruning.
+     *
+     * @param theBoard The position to search.
+     * @param theColor The color of the player to move.
+     * @param theDepth The remaining depth in plies.
+     * @param thePly The distance from the root in plies.
+     * @param theAlpha The score the player to move is already guaranteed.
+     * @param theBeta The score the opponent is already guaranteed, as seen by the player to move.
+     * @return The score of the position for the player to move.
+     */
+    private int negamax(BitBoard theBoard, int theColor, int theDepth, int thePly, int theAlpha, int theBeta) {
+        myNodes++;
+        if ((myNodes & (CLOCK_CHECK_INTERVAL - 1)) == 0 && (myStopRequested || isOutOfBudget())) {
+            myAborted = true;
+        }
+        if (myAborted) {
+            return 0;
+        }
+
+        int state = theBoard.getState();
+        if (state == BitBoard.DRAW) {
+            return 0;
+        } else if (state != BitBoard.ONGOING) {
+            return state == BitBoard.winsOf(theColor) ? WIN_SCORE - thePly : -WIN_SCORE + thePly;
+        } else if (theDepth == 0) {
+            myLeaves++;
+            return myEvaluator.evaluate(theBoard, theColor);
+        }
+
+        int symmetry = myUseSymmetry ? Symmetry.canonicalSymmetry(theBoard) : 0;
+        long key = positionKey(theBoard, theColor, symmetry);
+        long entry = myTable.probe(key);
+        // The cache may hold a deeper result than a table entry too shallow to cut off; use the deeper one.
+        int tableDepth = entry == 0 ? -1 : TranspositionTable.depthOf(entry);
+        if (myCache != null && theDepth >= myCacheDepth && tableDepth < theDepth) {
+            long cached = myCache.probe(key);
+            if (cached != 0 && TranspositionTable.depthOf(cached) > tableDepth) {
+                entry = cached;
+            }
+        }
+        int tableMove = -1;
+        if (entry != 0) {
+            myTableHits++;
+            int score = fromTable(TranspositionTable.scoreOf(entry), thePly);
+            int bound = TranspositionTable.boundOf(entry);
+            if (TranspositionTable.depthOf(entry) >= theDepth
+                    && (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= theBeta)
+                        || (bound == TranspositionTable.UPPER && score <= theAlpha))) {
+                return score;
+            }
+            tableMove = TranspositionTable.moveOf(entry);
+            if (tableMove >= 0) {
+                tableMove = fromCanonical(tableMove, symmetry);
+            }
+        }
+
+        int alpha = theAlpha;
+        int bestScore = -INFINITY;
+        int bestMove = -1;
+        int[] moves = myMoves[thePly];
+        int count = theBoard.generateDistinctMoves(moves, theColor);
+        myOrdering.order(theBoard, theColor, moves, count, tableMove, thePly);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            theBoard.makeMove(move, theColor);
+            int score = -negamax(theBoard, 1 - theColor, theDepth - 1, thePly + 1, -theBeta, -alpha);
+            theBoard.unmakeMove(move);
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= theBeta) {
+                        myCutoffs++;
+                        if (i == 0) {
+                            myFirstMoveCutoffs++;
+                        }
+                        myOrdering.recordCutoff(move, thePly, theDepth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (!myAborted) {
+            int bound = bestScore <= theAlpha ? TranspositionTable.UPPER
+                      : bestScore >= theBeta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            myTable.store(key, theDepth, bound, toTable(bestScore, thePly),
+                          toCanonical(bestMove, symmetry));
+            if (myCache != null && theDepth >= myCacheDepth) {
+                myCache.store(key, theDepth, bound, toTable(bestScore, thePly), toCanonical(bestMove, symmetry));
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Rotates part of a move buffer to the left in place, so the move at theFrom + theDistance comes first.
+     *
+     * @param theMoves The move buffer.
+     * @param theFrom The first index of the part to rotate.
+     * @param theTo The index after the last move of the part.
+     * @param theDistance How far to rotate.
+     */
+    private static void rotate(int[] theMoves, int theFrom, int theTo, int theDistance) {
+        int split = theFrom + theDistance % (theTo - theFrom);
+        reverse(theMoves, theFrom, split);
+        reverse(theMoves, split, theTo);
+        reverse(theMoves, theFrom, theTo);
+    }
+
+    /**
+     * Reverses part of a move buffer in place.
+     *
+     * @param theMoves The move buffer.
+     * @param theFrom The first index of the part to reverse.
+     * @param theTo The index after the last move of the part.
+     */
+    private static void reverse(int[] theMoves, int theFrom, int theTo) {
+        for (int i = theFrom, j = theTo - 1; i < j; i++, j--) {
+            int move = theMoves[i];
+            theMoves[i] = theMoves[j];
+            theMoves[j] = move;
+        }
+    }
+
+    /**
+     * Gives the transposition table key of a position: the hash of its image under a symmetry, changed
+     * when black is to move.
+     *
+     * @param theBoard The position.
+     * @param theColor The color of the player to move.
+     * @param theSymmetry The symmetry giving the position's canonical form, 0 when symmetry is off.
+     * @return The key of the position.
+     */
+    private static long positionKey(BitBoard theBoard, int theColor, int theSymmetry) {
+        long hash = Symmetry.hashOf(theBoard, theSymmetry);
+        return theColor == BitBoard.BLACK ? hash ^ Zobrist.SIDE_KEY : hash;
+    }
+
+    /**
+     * Maps a packed move on a position to the same move on the position's canonical form.
+     *
+     * @param theMove The packed move.
+     * @param theSymmetry The symmetry giving the position's canonical form.
+     * @return The packed move as stored in the transposition table.
+     */
+    private static int toCanonical(int theMove, int theSymmetry) {
+        return theSymmetry == 0 ? theMove : Symmetry.transformMove(theMove, theSymmetry);
+    }
+
+    /**
+     * Maps a packed move stored for a canonical form back to the position being searched.
+     *
+     * @param theMove The packed move read from the transposition table.
+     * @param theSymmetry The symmetry giving the position's canonical form.
+     * @return The packed move on the position.
+     */
+    private static int fromCanonical(int theMove, int theSymmetry) {
+        return theSymmetry == 0 ? theMove : Symmetry.transformMove(theMove, Symmetry.inverse(theSymmetry));
+    }
+
+    /**
+     * Converts a score into the form stored in the transposition table. Win scores depend on the distance
+     * from the root, so they are stored as the distance from the position itself.
+     *
+     * @param theScore The score as returned by the search.
+     * @param thePly The distance of the position from the root.
+     * @return The score to store.
+     */
+    private static int toTable(int theScore, int thePly) {
+        if (theScore >= WIN_THRESHOLD) {
+            return theScore + thePly;
+        } else if (theScore <= -WIN_THRESHOLD) {
+            return theScore - thePly;
+        }
+        return theScore;
+    }
+
+    /**
+     * Converts a score read from the transposition table back into a score relative to the root.
+     *
+     * @param theScore The stored score.
+     * @param thePly The distance of the position from the root.
+     * @return The score as the search uses it.
+     */
+    private static int fromTable(int theScore, int thePly) {
+        if (theScore >= WIN_THRESHOLD) {
+            return theScore - thePly;
+        } else if (theScore <= -WIN_THRESHOLD) {
+            return theScore + thePly;
+        }
+        return theScore;
+    }
+
+    /**
+     * Reads the principal variation of the last search out of the transposition table: the best move, then
+     * the best reply stored for the position it leads to, and so on while the table has moves for them.
+     * Entries may have been overwritten since, so the line can be shorter than the search depth.
+     *
+     * @param theBoard The position that was searched. It is not changed.
+     * @param theColor The color of the player to move.
+     * @param theBestMove The best move the search returned, or null.
+     * @param theMaxLength The most moves to return.
+     * @return The moves of the line, starting with the best move.
+     */
+    public ArrayList<Move> getPrincipalVariation(BitBoard theBoard, int theColor, Move theBestMove,
+                                                 int theMaxLength) {
+        ArrayList<Move> line = new ArrayList<>();
+        if (theBestMove == null) {
+            return line;
+        }
+        BitBoard board = new BitBoard(theBoard);
+        int color = theColor;
+        int move = theBestMove.encode();
+        while (line.size() < theMaxLength && board.isEmpty(move & 0x3F)) {
+            board.makeMove(move, color);
+            line.add(Move.decode(move));
+            color = 1 - color;
+            if (board.getState() != BitBoard.ONGOING) {
+                break;
+            }
+            int symmetry = myUseSymmetry ? Symmetry.canonicalSymmetry(board) : 0;
+            long entry = myTable.probe(positionKey(board, color, symmetry));
+            if (entry == 0 || TranspositionTable.moveOf(entry) < 0) {
+                break;
+            }
+            move = fromCanonical(TranspositionTable.moveOf(entry), symmetry);
+        }
+        return line;
+    }
+
+    public long getNodes() {
+        return myNodes;
+    }
+
+    /**
+     * Returns the counters of the last search. They are only meaningful once it has ended.
+     *
+     * @return The statistics of the last search.
+     */
+    public SearchStats getStats() {
+        return stats(myDepth, myElapsed / 1000000L);
+    }
+
+    /**
+     * Takes a snapshot of the counters of the current search.
+     *
+     * @param theDepth The depth reached.
+     * @param theTimeMillis The time taken so far, in milliseconds.
+     * @return The statistics.
+     */
+    private SearchStats stats(int theDepth, long theTimeMillis) {
+        return new SearchStats(myNodes, myLeaves, myCutoffs, myFirstMoveCutoffs, myTableHits, theDepth,
+                               theTimeMillis);
+    }
+
+    public int getWorker() {
+        return myWorker;
+    }
+
+    public TranspositionTable getTable() {
+        return myTable;
+    }
+
+    /**
+     * Sets the listener told about every completed iteration of searchTimed().
+     *
+     * @param theListener The listener, or null for none.
+     */
+    public void setListener(SearchListener theListener) {
+        myListener = theListener;
+    }
+
+    /**
+     * Limits the number of positions a search may visit. The limit is checked every 1024 positions, and
+     * the first iteration of searchTimed() always completes.
+     *
+     * @param theNodes The most positions to visit, Long.MAX_VALUE for no limit.
+     */
+    public void setNodeLimit(long theNodes) {
+        myNodeLimit = theNodes;
+    }
+
+    /**
+     * Replaces the move ordering of the engine.
+     *
+     * @param theOrdering The ordering to use, owned by this engine from now on.
+     */
+    public void setMoveOrdering(MoveOrdering theOrdering) {
+        myOrdering = theOrdering;
+    }
+
+    /**
+     * Replaces the evaluation of the engine. With symmetry enabled the evaluation must score the
+     * symmetric images of a position alike, since they share table entries.
+     *
+     * @param theEvaluator The evaluation to use.
+     */
+    public void setEvaluator(Evaluator theEvaluator) {
+        myEvaluator = theEvaluator;
+    }
+
+    /**
+     * Gives the engine a position cache shared with other engines and processes. Probing and writing
+     * the mapped file costs more than the table, so only positions with enough depth left to search
+     * use it.
+     *
+     * @param theCache The cache, or null for none.
+     * @param theMinDepth The shallowest remaining depth at which the cache is used.
+     */
+    public void setCache(PositionCache theCache, int theMinDepth) {
+        myCache = theCache;
+        myCacheDepth = theMinDepth;
+    }
+
+    /**
+     * Gives the engine an endgame solver. Once few enough cells are empty, and its depth limit reaches the
+     * end of the game, searchTimed() tries to prove the result of the game before deepening, and plays the
+     * proven move unless it proves a loss.
+     *
+     * @param theSolver The solver, owned by this engine from now on, or null for none.
+     * @param theEmptyCells The most empty cells a position may have for the solver to take it on.
+     */
+    public void setSolver(EndgameSolver theSolver, int theEmptyCells) {
+        mySolver = theSolver;
+        mySolverCells = theEmptyCells;
+    }
+
+    /**
+     * Turns keying positions by their canonical form on or off.
+     *
+     * @param isEnabled True to share table entries between symmetric positions.
+     */
+    public void setUseSymmetry(boolean isEnabled) {
+        myUseSymmetry = isEnabled;
+    }
+
+}
@@ -0,0 +1,78 @@
+/**
+ * SearchLimits.java
+ *
+ * How long an Engine may search: a maximum depth, a time budget and a node budget. The search stops at
+ * whichever limit it reaches first, but always completes its first iteration so there is a move to play.
+ */
+public class SearchLimits {
+
+    /* The deepest iteration to run. */
+    private int myDepth;
+
+    /* The time the search may take, in milliseconds. */
+    private long myTimeMillis;
+
+    /* The most positions the search may visit. */
+    private long myNodes;
+
+    /**
+     * SearchLimits object constructor. A limit of 0 or less means no limit.
+     *
+     * @param theDepth The deepest iteration to run.
+     * @param theTimeMillis The time the search may take, in milliseconds.
+     * @param theNodes The most positions the search may visit.
+     */
+    public SearchLimits(int theDepth, long theTimeMillis, long theNodes) {
+        myDepth = theDepth > 0 ? theDepth : BitBoard.CELLS;
+        myTimeMillis = theTimeMillis > 0 ? theTimeMillis : Long.MAX_VALUE;
+        myNodes = theNodes > 0 ? theNodes : Long.MAX_VALUE;
+    }
+
+    /**
+     * Limits a search to a depth only.
+     *
+     * @param theDepth The deepest iteration to run.
+     * @return The limits.
+     */
+    public static SearchLimits depth(int theDepth) {
+        return new SearchLimits(theDepth, 0, 0);
+    }
+
+    /**
+     * Limits a search to a time budget only.
+     *
+     * @param theTimeMillis The time the search may take, in milliseconds.
+     * @return The limits.
+     */
+    public static SearchLimits time(long theTimeMillis) {
+        return new SearchLimits(0, theTimeMillis, 0);
+    }
+
+    /**
+     * Limits a search to a node budget only.
+     *
+     * @param theNodes The most positions the search may visit.
+     * @return The limits.
+     */
+    public static SearchLimits nodes(long theNodes) {
+        return new SearchLimits(0, 0, theNodes);
+    }
+
+    public int getDepth() {
+        return myDepth;
+    }
+
+    public long getTimeMillis() {
+        return myTimeMillis;
+    }
+
+    public long getNodes() {
+        return myNodes;
+    }
+
+    public String toString() {
+        return "depth " + myDepth + ", time " + (myTimeMillis == Long.MAX_VALUE ? "-" : myTimeMillis + " ms")
+               + ", nodes " + (myNodes == Long.MAX_VALUE ? "-" : String.valueOf(myNodes));
+    }
+
+}
@@ -0,0 +1,17 @@
+/**
+ * SearchListener.java
+ *
+ * Follows the progress of an iterative deepening search, for example to report it to a user interface.
+ * A listener is called on the searching thread, so it should return quickly.
+ */
+public interface SearchListener {
+
+    /**
+     * Called each time an iteration of the search completes.
+     *
+     * @param theResult The result of the iteration, with the principal variation and the nodes and time
+     *                  spent by the search so far.
+     */
+    void iterationDone(EngineResult theResult);
+
+}
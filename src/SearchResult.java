@@ -0,0 +1,47 @@
+/**
+ * SearchResult.java
+ *
+ * The outcome of a search: the best move found for the player to move, the score the search gave it
+ * and the depth the search reached.
+ */
+public class SearchResult {
+
+    /* The best move found, null if the board had no moves left to play. */
+    private Move myMove;
+
+    /* The score of the best move from the point of view of the player to move. */
+    private int myScore;
+
+    /* The depth in plies the move was searched to. */
+    private int myDepth;
+
+    /**
+     * SearchResult object constructor.
+     *
+     * @param theMove The best move found.
+     * @param theScore The score of the best move.
+     * @param theDepth The depth the move was searched to.
+     */
+    public SearchResult(Move theMove, int theScore, int theDepth) {
+        myMove = theMove;
+        myScore = theScore;
+        myDepth = theDepth;
+    }
+
+    public Move getMove() {
+        return myMove;
+    }
+
+    public int getScore() {
+        return myScore;
+    }
+
+    public int getDepth() {
+        return myDepth;
+    }
+
+    public String toString() {
+        return myMove + " (score " + myScore + ", depth " + myDepth + ")";
+    }
+
+}
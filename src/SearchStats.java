@@ -0,0 +1,135 @@
+import java.util.Locale;
+
+/**
+ * SearchStats.java
+ *
+ * Counters describing the work a search did: positions visited, leaves evaluated, beta cutoffs and how
+ * many of them the first move searched produced, transposition table hits, the depth reached and the
+ * time taken. Every SearchEngine counts into plain fields of its own, so the counting costs no
+ * synchronization, and the counts of the workers of a ParallelSearch are added up once the search is
+ * over.
+ *
+ * toString() writes the counters as one line of key=value pairs, meant for logs.
+ */
+public class SearchStats {
+
+    /* Number of positions visited. */
+    private long myNodes;
+
+    /* Number of positions scored by the evaluation. */
+    private long myLeaves;
+
+    /* Number of positions whose search ended early on a beta cutoff. */
+    private long myCutoffs;
+
+    /* Number of beta cutoffs made by the first move searched. */
+    private long myFirstMoveCutoffs;
+
+    /* Number of positions found in the transposition table or the position cache. */
+    private long myTableHits;
+
+    /* Depth of the result, in plies. */
+    private int myDepth;
+
+    /* Time the search took, in milliseconds. */
+    private long myTimeMillis;
+
+    /**
+     * SearchStats object constructor.
+     *
+     * @param theNodes The number of positions visited.
+     * @param theLeaves The number of positions scored by the evaluation.
+     * @param theCutoffs The number of beta cutoffs.
+     * @param theFirstMoveCutoffs The number of beta cutoffs made by the first move searched.
+     * @param theTableHits The number of positions found in the transposition table or the position cache.
+     * @param theDepth The depth of the result, in plies.
+     * @param theTimeMillis The time the search took, in milliseconds.
+     */
+    public SearchStats(long theNodes, long theLeaves, long theCutoffs, long theFirstMoveCutoffs,
+                       long theTableHits, int theDepth, long theTimeMillis) {
+        myNodes = theNodes;
+        myLeaves = theLeaves;
+        myCutoffs = theCutoffs;
+        myFirstMoveCutoffs = theFirstMoveCutoffs;
+        myTableHits = theTableHits;
+        myDepth = theDepth;
+        myTimeMillis = theTimeMillis;
+    }
+
+    /**
+     * Adds up the work of two searches run side by side, such as the workers of a ParallelSearch. The
+     * counters are summed; the depth and time are those of the one that went deeper and took longer.
+     *
+     * @param theOther The statistics of the other search.
+     * @return The combined statistics.
+     */
+    public SearchStats add(SearchStats theOther) {
+        return new SearchStats(myNodes + theOther.myNodes, myLeaves + theOther.myLeaves,
+                               myCutoffs + theOther.myCutoffs, myFirstMoveCutoffs + theOther.myFirstMoveCutoffs,
+                               myTableHits + theOther.myTableHits, Math.max(myDepth, theOther.myDepth),
+                               Math.max(myTimeMillis, theOther.myTimeMillis));
+    }
+
+    public long getNodes() {
+        return myNodes;
+    }
+
+    public long getLeaves() {
+        return myLeaves;
+    }
+
+    public long getCutoffs() {
+        return myCutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return myFirstMoveCutoffs;
+    }
+
+    public long getTableHits() {
+        return myTableHits;
+    }
+
+    public int getDepth() {
+        return myDepth;
+    }
+
+    public long getTimeMillis() {
+        return myTimeMillis;
+    }
+
+    /**
+     * Returns the share of beta cutoffs made by the first move searched, a measure of the move ordering.
+     *
+     * @return A ratio between 0 and 1, 0 if there were no cutoffs.
+     */
+    public double getFirstMoveCutoffRatio() {
+        return myCutoffs == 0 ? 0 : (double) myFirstMoveCutoffs / myCutoffs;
+    }
+
+    /**
+     * Returns the effective branching factor: the number of moves per position that a uniform tree of
+     * the same depth would need to have as many nodes.
+     *
+     * @return The depth-th root of the node count, 0 if nothing was searched.
+     */
+    public double getEffectiveBranchingFactor() {
+        return myDepth == 0 || myNodes == 0 ? 0 : Math.pow(myNodes, 1.0 / myDepth);
+    }
+
+    /**
+     * Returns the search speed.
+     *
+     * @return The positions visited per second.
+     */
+    public long getNodesPerSecond() {
+        return myNodes * 1000 / Math.max(1, myTimeMillis);
+    }
+
+    public String toString() {
+        return String.format(Locale.ROOT, "depth=%d time=%d nodes=%d nps=%d leaves=%d cutoffs=%d firstCutoff=%.3f"
+                             + " ttHits=%d ebf=%.2f", myDepth, myTimeMillis, myNodes, getNodesPerSecond(), myLeaves,
+                             myCutoffs, getFirstMoveCutoffRatio(), myTableHits, getEffectiveBranchingFactor());
+    }
+
+}
@@ -0,0 +1,14 @@
+/**
+ * StreakEvaluator.java
+ *
+ * The original evaluation of the computer player: the longest streak of the player to move minus the
+ * longest streak of the opponent (see BitBoard.evaluateUtility()).
+ */
+public class StreakEvaluator implements Evaluator {
+
+    @Override
+    public int evaluate(BitBoard theBoard, int theColor) {
+        return theBoard.evaluateUtility(theColor) - theBoard.evaluateUtility(1 - theColor);
+    }
+
+}
@@ -0,0 +1,235 @@
+/**
+ * Symmetry.java
+ *
+ * The eight symmetries of the 6x6 board (four rotations of the whole board, each with or without a
+ * mirror image) and canonical position keys built on them. Symmetric positions have the same value, so
+ * caches and books keyed by the canonical form of a position can share one entry for up to eight
+ * positions.
+ *
+ * Every symmetry maps each Block onto a whole Block and rearranges its nine cells the same way for all
+ * four Blocks, so a board is transformed Block by Block through precomputed tables. Symmetries also
+ * map moves: the played cell and rotating Block follow the board, and a mirror image turns a left
+ * rotation into a right one.
+ */
+public class Symmetry {
+
+    /**
+     * Number of symmetries of the board. Symmetry 0 is the identity.
+     */
+    public static final int COUNT = 8;
+
+    /**
+     * Symmetries 4 - 7 are mirror images, the others rotations of the whole board.
+     */
+    private static final int FIRST_REFLECTION = 4;
+
+    /* For each symmetry, the cell each cell is mapped to. */
+    private static final int[][] CELL_MAP = new int[COUNT][BitBoard.CELLS];
+
+    /* For each symmetry and Block, the bits each pattern of the Block is mapped to. */
+    private static final long[][][] BLOCK_MAP = new long[COUNT][4][Rotation.PATTERNS];
+
+    /* For each symmetry, the symmetry that undoes it. */
+    private static final int[] INVERSE = new int[COUNT];
+
+    static {
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int row = 0; row < 6; row++) {
+                for (int col = 0; col < 6; col++) {
+                    CELL_MAP[symmetry][BitBoard.cellAt(row, col)] = mapCoordinates(symmetry, row, col);
+                }
+            }
+            for (int block = 0; block < 4; block++) {
+                for (int pattern = 0; pattern < Rotation.PATTERNS; pattern++) {
+                    long bits = 0L;
+                    for (int i = 0; i < BitBoard.BLOCK_CELLS; i++) {
+                        if ((pattern & (1 << i)) != 0) {
+                            bits |= 1L << CELL_MAP[symmetry][block * BitBoard.BLOCK_CELLS + i];
+                        }
+                    }
+                    BLOCK_MAP[symmetry][block][pattern] = bits;
+                }
+            }
+        }
+
+        for (int symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (int other = 0; other < COUNT; other++) {
+                boolean isInverse = true;
+                for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                    isInverse &= CELL_MAP[other][CELL_MAP[symmetry][cell]] == cell;
+                }
+                if (isInverse) {
+                    INVERSE[symmetry] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a symmetry to a player's bitboard.
+     *
+     * @param theBits The bitboard.
+     * @param theSymmetry The symmetry (0 - 7).
+     * @return The transformed bitboard.
+     */
+    public static long transform(long theBits, int theSymmetry) {
+        long[][] map = BLOCK_MAP[theSymmetry];
+        return map[0][(int) (theBits & BitBoard.BLOCK_MASK)]
+             | map[1][(int) (theBits >>> 9 & BitBoard.BLOCK_MASK)]
+             | map[2][(int) (theBits >>> 18 & BitBoard.BLOCK_MASK)]
+             | map[3][(int) (theBits >>> 27 & BitBoard.BLOCK_MASK)];
+    }
+
+    /**
+     * Applies a symmetry to a cell index.
+     *
+     * @param theCell The index of the cell.
+     * @param theSymmetry The symmetry (0 - 7).
+     * @return The index of the cell it is mapped to.
+     */
+    public static int transformCell(int theCell, int theSymmetry) {
+        return CELL_MAP[theSymmetry][theCell];
+    }
+
+    /**
+     * Applies a symmetry to a packed move (see Move.encode()), so that playing the transformed move on
+     * the transformed board gives the transformed result.
+     *
+     * @param theMove The packed move.
+     * @param theSymmetry The symmetry (0 - 7).
+     * @return The packed transformed move.
+     */
+    public static int transformMove(int theMove, int theSymmetry) {
+        int cell = CELL_MAP[theSymmetry][theMove & 0x3F];
+        int rotatingBlock = CELL_MAP[theSymmetry][(theMove >>> 6 & 0x3) * BitBoard.BLOCK_CELLS + 4]
+                            / BitBoard.BLOCK_CELLS;
+        int direction = theMove >>> 8 & 1;
+        if (isReflection(theSymmetry)) {
+            direction ^= 1;
+        }
+        return cell | rotatingBlock << 6 | direction << 8;
+    }
+
+    /**
+     * Returns the symmetry that undoes another one.
+     *
+     * @param theSymmetry The symmetry (0 - 7).
+     * @return The inverse symmetry.
+     */
+    public static int inverse(int theSymmetry) {
+        return INVERSE[theSymmetry];
+    }
+
+    /**
+     * Checks whether a symmetry is a mirror image, which reverses the direction of rotations.
+     *
+     * @param theSymmetry The symmetry (0 - 7).
+     * @return True for a mirror image, false for a rotation of the board.
+     */
+    public static boolean isReflection(int theSymmetry) {
+        return theSymmetry >= FIRST_REFLECTION;
+    }
+
+    /**
+     * Finds the symmetry that maps a position onto its canonical form, the smallest of its eight images
+     * comparing the white bitboards first and the black bitboards second.
+     *
+     * @param theBoard The position.
+     * @return The symmetry giving the canonical form. Playing a move found for the canonical form on the
+     *         board means mapping it back through inverse() of this symmetry.
+     */
+    public static int canonicalSymmetry(BitBoard theBoard) {
+        long white = theBoard.getPieces(BitBoard.WHITE);
+        long black = theBoard.getPieces(BitBoard.BLACK);
+        int best = 0;
+        long bestWhite = white;
+        long bestBlack = black;
+        for (int symmetry = 1; symmetry < COUNT; symmetry++) {
+            long w = transform(white, symmetry);
+            if (w > bestWhite) {
+                continue;
+            }
+            long b = transform(black, symmetry);
+            if (w < bestWhite || b < bestBlack) {
+                best = symmetry;
+                bestWhite = w;
+                bestBlack = b;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gives the hash of a position's image under a symmetry.
+     *
+     * @param theBoard The position.
+     * @param theSymmetry The symmetry (0 - 7), usually canonicalSymmetry(theBoard).
+     * @return The Zobrist hash of the transformed position.
+     */
+    public static long hashOf(BitBoard theBoard, int theSymmetry) {
+        if (theSymmetry == 0) {
+            return theBoard.hash();
+        }
+        return Zobrist.hashOf(transform(theBoard.getPieces(BitBoard.WHITE), theSymmetry),
+                              transform(theBoard.getPieces(BitBoard.BLACK), theSymmetry));
+    }
+
+    /**
+     * Gives the hash of a position's canonical form, equal for all positions that are symmetric to it.
+     *
+     * @param theBoard The position.
+     * @return The canonical Zobrist hash.
+     */
+    public static long canonicalHash(BitBoard theBoard) {
+        return hashOf(theBoard, canonicalSymmetry(theBoard));
+    }
+
+    /**
+     * Maps a row and column of the board through a symmetry.
+     *
+     * @param theSymmetry The symmetry (0 - 7).
+     * @param theRow The row of the cell.
+     * @param theCol The column of the cell.
+     * @return The index of the cell the row and column are mapped to.
+     */
+    private static int mapCoordinates(int theSymmetry, int theRow, int theCol) {
+        int row;
+        int col;
+        switch (theSymmetry) {
+            case 1:  // Quarter turn clockwise.
+                row = theCol;
+                col = 5 - theRow;
+                break;
+            case 2:  // Half turn.
+                row = 5 - theRow;
+                col = 5 - theCol;
+                break;
+            case 3:  // Quarter turn counter clockwise.
+                row = 5 - theCol;
+                col = theRow;
+                break;
+            case 4:  // Mirror left to right.
+                row = theRow;
+                col = 5 - theCol;
+                break;
+            case 5:  // Mirror top to bottom.
+                row = 5 - theRow;
+                col = theCol;
+                break;
+            case 6:  // Mirror along the main diagonal.
+                row = theCol;
+                col = theRow;
+                break;
+            case 7:  // Mirror along the anti diagonal.
+                row = 5 - theCol;
+                col = 5 - theRow;
+                break;
+            default:
+                row = theRow;
+                col = theCol;
+                break;
+        }
+        return BitBoard.cellAt(row, col);
+    }
+
+}
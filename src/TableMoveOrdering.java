@@ -0,0 +1,31 @@
+/**
+ * TableMoveOrdering.java
+ *
+ * The plainest move ordering: the transposition table move first, the other moves in the order
+ * BitBoard generates them. Mostly useful as a baseline to measure other orderings against.
+ */
+public class TableMoveOrdering implements MoveOrdering {
+
+    @Override
+    public void newSearch() {
+    }
+
+    @Override
+    public void order(BitBoard theBoard, int theColor, int[] theMoves, int theCount, int theTableMove, int thePly) {
+        if (theTableMove < 0) {
+            return;
+        }
+        for (int i = 0; i < theCount; i++) {
+            if (theMoves[i] == theTableMove) {
+                System.arraycopy(theMoves, 0, theMoves, 1, i);
+                theMoves[0] = theTableMove;
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void recordCutoff(int theMove, int thePly, int theDepth) {
+    }
+
+}
@@ -0,0 +1,243 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TranspositionTable.java
+ *
+ * Fixed size cache of search results keyed by position hash, so a position reached through different
+ * move orders is only searched once. Entries live in a single long[] with two slots per entry, the key
+ * XOR the data and the data itself, so the table holds no per entry objects.
+ *
+ * The table takes no locks. Several searches may read and write it at once: a reader that catches an
+ * entry half written by another thread sees a key that does not match the data and treats the entry
+ * as a miss. An entry is only replaced by a search at least as deep, unless it was stored during an
+ * earlier search (see newSearch()).
+ *
+ * Data layout: score in bits 0 - 31, packed move + 1 in bits 32 - 41 (0 for no move), depth in bits
+ * 42 - 49, bound type in bits 50 - 51 and search generation in bits 52 - 57. An all zero data word
+ * is an empty slot.
+ */
+public class TranspositionTable {
+
+    /**
+     * Size of the table when none is configured, in megabytes.
+     */
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    /**
+     * Bound type of an exact score.
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * Bound type of a score that is at least the stored score (the search failed high).
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * Bound type of a score that is at most the stored score (the search failed low).
+     */
+    public static final int UPPER = 3;
+
+    /**
+     * Bytes used by one entry.
+     */
+    private static final int ENTRY_BYTES = 16;
+
+    /**
+     * Number of entries looked at when estimating how full the table is.
+     */
+    private static final int FILL_SAMPLE = 4096;
+
+    /* Two longs per entry: the key XOR the data, then the data. */
+    private final long[] myTable;
+
+    /* Number of entries minus one, used to map a key to its entry. */
+    private final int myIndexMask;
+
+    /* Generation of the current search, stored with each entry so old entries can be replaced. */
+    private volatile int myGeneration;
+
+    /* Statistics. */
+    private final LongAdder myProbes = new LongAdder();
+    private final LongAdder myHits = new LongAdder();
+    private final LongAdder myCollisions = new LongAdder();
+    private final LongAdder myStores = new LongAdder();
+
+    /**
+     * Default constructor, creates a table of DEFAULT_SIZE_MB megabytes.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Creates a table using at most the given amount of memory. The number of entries is rounded down
+     * to a power of two.
+     *
+     * @param theSizeMb The memory the table may use, in megabytes.
+     * @throws IllegalArgumentException Thrown if the size is less than one megabyte.
+     */
+    public TranspositionTable(int theSizeMb) throws IllegalArgumentException {
+        if (theSizeMb < 1) {
+            throw new IllegalArgumentException("Transposition table size must be at least 1 MB.");
+        }
+        long entries = Long.highestOneBit((long) theSizeMb * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1 << 29);
+        myTable = new long[(int) entries * 2];
+        myIndexMask = (int) entries - 1;
+    }
+
+    /**
+     * Looks up the entry stored for a position.
+     *
+     * @param theKey The hash of the position.
+     * @return The data word of the entry, or 0 if the position is not in the table.
+     */
+    public long probe(long theKey) {
+        myProbes.increment();
+        int index = ((int) theKey & myIndexMask) << 1;
+        long check = myTable[index];
+        long data = myTable[index + 1];
+        if (data == 0) {
+            return 0;
+        } else if ((check ^ data) != theKey) {
+            myCollisions.increment();
+            return 0;
+        }
+        myHits.increment();
+        return data;
+    }
+
+    /**
+     * Stores a search result, unless the entry for the position's slot holds a deeper result of the
+     * current search.
+     *
+     * @param theKey The hash of the position.
+     * @param theDepth The depth the position was searched to.
+     * @param theBound EXACT, LOWER or UPPER.
+     * @param theScore The score of the position.
+     * @param theMove The packed best move (see Move.encode()), or -1 for none.
+     */
+    public void store(long theKey, int theDepth, int theBound, int theScore, int theMove) {
+        int index = ((int) theKey & myIndexMask) << 1;
+        long old = myTable[index + 1];
+        if (old != 0 && generationOf(old) == myGeneration && depthOf(old) > theDepth) {
+            return;
+        }
+
+        long data = pack(theDepth, theBound, theScore, theMove, myGeneration);
+        myTable[index] = theKey ^ data;
+        myTable[index + 1] = data;
+        myStores.increment();
+    }
+
+    /**
+     * Marks the start of a new search. Entries stored by earlier searches stay readable but may be
+     * replaced by shallower results.
+     */
+    public void newSearch() {
+        myGeneration = (myGeneration + 1) & 0x3F;
+    }
+
+    /**
+     * Empties the table and resets its statistics.
+     */
+    public void clear() {
+        Arrays.fill(myTable, 0L);
+        myProbes.reset();
+        myHits.reset();
+        myCollisions.reset();
+        myStores.reset();
+    }
+
+    /**
+     * Packs a search result into a data word.
+     *
+     * @param theDepth The depth the position was searched to.
+     * @param theBound EXACT, LOWER or UPPER.
+     * @param theScore The score of the position.
+     * @param theMove The packed best move, or -1 for none.
+     * @param theGeneration The search generation, 0 - 63.
+     * @return The data word, never 0.
+     */
+    static long pack(int theDepth, int theBound, int theScore, int theMove, int theGeneration) {
+        return (theScore & 0xFFFFFFFFL)
+                | (long) (theMove + 1) << 32
+                | (long) Math.min(theDepth, 0xFF) << 42
+                | (long) theBound << 50
+                | (long) theGeneration << 52;
+    }
+
+    public static int scoreOf(long theData) {
+        return (int) theData;
+    }
+
+    public static int moveOf(long theData) {
+        return (int) (theData >>> 32 & 0x3FF) - 1;
+    }
+
+    public static int depthOf(long theData) {
+        return (int) (theData >>> 42 & 0xFF);
+    }
+
+    public static int boundOf(long theData) {
+        return (int) (theData >>> 50 & 0x3);
+    }
+
+    private static int generationOf(long theData) {
+        return (int) (theData >>> 52 & 0x3F);
+    }
+
+    public int getEntries() {
+        return myIndexMask + 1;
+    }
+
+    public long getProbes() {
+        return myProbes.sum();
+    }
+
+    public long getHits() {
+        return myHits.sum();
+    }
+
+    public long getCollisions() {
+        return myCollisions.sum();
+    }
+
+    public long getStores() {
+        return myStores.sum();
+    }
+
+    /**
+     * Returns the share of probes that found their position.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double getHitRate() {
+        long probes = getProbes();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+
+    /**
+     * Estimates how full the table is from a sample of its first entries.
+     *
+     * @return The share of sampled entries in use, between 0 and 1.
+     */
+    public double getFillRatio() {
+        int sample = Math.min(getEntries(), FILL_SAMPLE);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (myTable[(i << 1) + 1] != 0) {
+                used++;
+            }
+        }
+        return (double) used / sample;
+    }
+
+    public String toString() {
+        return String.format("entries=%d probes=%d hitRate=%.3f collisions=%d fill=%.3f",
+                getEntries(), getProbes(), getHitRate(), getCollisions(), getFillRatio());
+    }
+
+}
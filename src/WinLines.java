@@ -0,0 +1,130 @@
+/**
+ * WinLines.java
+ *
+ * Precomputed bit masks of the lines of the board, in the BitBoard cell layout. There are 32 windows of
+ * five cells in a row (two in each row and column, two on each main diagonal and one on each of the
+ * four diagonals next to them), and a player has won as soon as one window is full of their pieces.
+ *
+ * Streaks are measured the way Board always has: along the six rows and six columns, and along the
+ * eight diagonal windows. Every run of consecutive cells on those lines gets a mask, so the longest
+ * streak is the longest run whose mask is fully covered by the player's pieces.
+ */
+public class WinLines {
+
+    /**
+     * Number of five in a row windows on the board.
+     */
+    public static final int WINDOW_COUNT = 32;
+
+    /**
+     * The five in a row windows.
+     */
+    public static final long[] WINDOWS = new long[WINDOW_COUNT];
+
+    /**
+     * Longest streak there can be on the board.
+     */
+    private static final int MAX_STREAK = 6;
+
+    /* For each streak length, the masks of every run of that many consecutive cells. */
+    private static final long[][] RUNS = new long[MAX_STREAK + 1][];
+
+    static {
+        // Start row, start column, row step and column step of the lines streaks are measured on.
+        int[][] lines = new int[20][];
+        int count = 0;
+        for (int i = 0; i < 6; i++) {
+            lines[count++] = new int[] {i, 0, 0, 1, 6};
+            lines[count++] = new int[] {0, i, 1, 0, 6};
+        }
+        int[][] diagonals = {{1, 0, 1}, {0, 0, 1}, {1, 1, 1}, {0, 1, 1},
+                             {0, 4, -1}, {0, 5, -1}, {1, 4, -1}, {1, 5, -1}};
+        for (int[] diagonal : diagonals) {
+            lines[count++] = new int[] {diagonal[0], diagonal[1], 1, diagonal[2], 5};
+        }
+
+        for (int length = 1; length <= MAX_STREAK; length++) {
+            int runs = 0;
+            for (int[] line : lines) {
+                runs += Math.max(0, line[4] - length + 1);
+            }
+            RUNS[length] = new long[runs];
+            runs = 0;
+            for (int[] line : lines) {
+                for (int start = 0; start + length <= line[4]; start++) {
+                    long mask = 0L;
+                    for (int i = start; i < start + length; i++) {
+                        mask |= 1L << BitBoard.cellAt(line[0] + i * line[2], line[1] + i * line[3]);
+                    }
+                    RUNS[length][runs++] = mask;
+                }
+            }
+        }
+
+        // Every run of five is a window.
+        System.arraycopy(RUNS[5], 0, WINDOWS, 0, WINDOW_COUNT);
+    }
+
+    /**
+     * Checks whether a player's pieces fill a five in a row window.
+     *
+     * @param theBits The player's bitboard.
+     * @return True if the player has five in a row.
+     */
+    public static boolean hasFive(long theBits) {
+        if (Long.bitCount(theBits) < 5) {
+            return false;
+        }
+        for (long window : WINDOWS) {
+            if ((theBits & window) == window) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds out whether a game is over, checking the windows for both players in one pass.
+     *
+     * @param theWhite The white bitboard.
+     * @param theBlack The black bitboard.
+     * @return BitBoard.ONGOING, WHITE_WINS, BLACK_WINS or DRAW.
+     */
+    public static int gameState(long theWhite, long theBlack) {
+        boolean isWhite = false;
+        boolean isBlack = false;
+        if (Long.bitCount(theWhite) >= 5 || Long.bitCount(theBlack) >= 5) {
+            for (long window : WINDOWS) {
+                isWhite |= (theWhite & window) == window;
+                isBlack |= (theBlack & window) == window;
+            }
+        }
+        if (isWhite) {
+            return isBlack ? BitBoard.DRAW : BitBoard.WHITE_WINS;
+        } else if (isBlack) {
+            return BitBoard.BLACK_WINS;
+        }
+        return (theWhite | theBlack) == BitBoard.BOARD_MASK ? BitBoard.DRAW : BitBoard.ONGOING;
+    }
+
+    /**
+     * Finds a player's longest streak of consecutive pieces, as Board.evaluateUtility() measures it.
+     *
+     * @param theBits The player's bitboard.
+     * @return The longest streak, 0 to 6.
+     */
+    public static int longestStreak(long theBits) {
+        if (theBits == 0) {
+            return 0;
+        }
+        for (int length = Math.min(MAX_STREAK, Long.bitCount(theBits)); length > 1; length--) {
+            for (long run : RUNS[length]) {
+                if ((theBits & run) == run) {
+                    return length;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,93 @@
+import java.util.Random;
+
+/**
+ * Zobrist.java
+ *
+ * Random keys for Zobrist hashing of BitBoard positions. The hash of a position is the XOR of the key of
+ * every piece on the board, so placing or removing a piece changes it by a single XOR. Block rotations
+ * only move the nine pieces of one Block, so the keys of every Block pattern are combined up front and
+ * a rotation XORs out the old pattern and XORs in the new one.
+ */
+public class Zobrist {
+
+    /**
+     * Key XORed into a hash to tell apart the same position with the other player to move.
+     */
+    public static final long SIDE_KEY;
+
+    /**
+     * Seed of the key generator, fixed so hashes are the same from run to run and can be stored on disk.
+     */
+    private static final long SEED = 0x5EED_CAFE_F00DL;
+
+    /* Key of a piece of each color on each cell. */
+    private static final long[][] CELL_KEYS = new long[2][BitBoard.CELLS];
+
+    /* Combined key of each color's pieces for every pattern of every Block. */
+    private static final long[][][] BLOCK_KEYS = new long[2][4][Rotation.PATTERNS];
+
+    static {
+        Random random = new Random(SEED);
+        for (int color = 0; color < 2; color++) {
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                CELL_KEYS[color][cell] = random.nextLong();
+            }
+        }
+        SIDE_KEY = random.nextLong();
+
+        for (int color = 0; color < 2; color++) {
+            for (int block = 0; block < 4; block++) {
+                for (int pattern = 0; pattern < Rotation.PATTERNS; pattern++) {
+                    long key = 0L;
+                    for (int i = 0; i < BitBoard.BLOCK_CELLS; i++) {
+                        if ((pattern & (1 << i)) != 0) {
+                            key ^= CELL_KEYS[color][block * BitBoard.BLOCK_CELLS + i];
+                        }
+                    }
+                    BLOCK_KEYS[color][block][pattern] = key;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the key of a piece on a cell.
+     *
+     * @param theColor BitBoard.WHITE or BitBoard.BLACK.
+     * @param theCell The index of the cell.
+     * @return The key of the piece.
+     */
+    public static long cellKey(int theColor, int theCell) {
+        return CELL_KEYS[theColor][theCell];
+    }
+
+    /**
+     * Returns the combined key of one color's pieces on a Block.
+     *
+     * @param theColor BitBoard.WHITE or BitBoard.BLACK.
+     * @param theBlockNum The Block (1 - 4).
+     * @param thePattern The 9 bit occupancy pattern of the color on the Block.
+     * @return The XOR of the keys of the pieces in the pattern.
+     */
+    public static long blockKey(int theColor, int theBlockNum, int thePattern) {
+        return BLOCK_KEYS[theColor][theBlockNum - 1][thePattern];
+    }
+
+    /**
+     * Computes the hash of a position from scratch.
+     *
+     * @param theWhite The white pieces' bitboard.
+     * @param theBlack The black pieces' bitboard.
+     * @return The hash of the position.
+     */
+    public static long hashOf(long theWhite, long theBlack) {
+        long hash = 0L;
+        for (int block = 1; block < 5; block++) {
+            int shift = (block - 1) * BitBoard.BLOCK_CELLS;
+            hash ^= blockKey(BitBoard.WHITE, block, (int) ((theWhite >>> shift) & BitBoard.BLOCK_MASK));
+            hash ^= blockKey(BitBoard.BLACK, block, (int) ((theBlack >>> shift) & BitBoard.BLOCK_MASK));
+        }
+        return hash;
+    }
+
+}
@@ -0,0 +1,62 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ArenaTest {
+
+    @Test
+    public void playsEveryGameAndLogsIt() throws Exception {
+        Arena arena = new Arena(config(), config(), 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        arena.setLog(new PrintStream(out, true, "UTF-8"));
+        MatchScore score = arena.play(6);
+        assertEquals(6, score.getGames());
+
+        String[] lines = out.toString("UTF-8").trim().split("\n");
+        assertEquals(6, lines.length);
+        for (String line : lines) {
+            assertTrue(line, line.matches("game \\d first [WB] result (1-0|0-1|1/2) plies \\d+ moves .*"));
+            // The four opening moves come without a time, every engine move with one.
+            String[] moves = line.substring(line.indexOf(" moves ") + 7).split(",");
+            int plies = Integer.parseInt(line.replaceAll(".* plies (\\d+) .*", "$1"));
+            assertEquals(plies, moves.length);
+            for (int i = 0; i < moves.length; i++) {
+                assertEquals(moves[i], i >= 4, moves[i].contains(":"));
+            }
+        }
+    }
+
+    @Test
+    public void pairedGamesShareTheirOpening() throws Exception {
+        Arena arena = new Arena(config(), config(), 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        arena.setLog(new PrintStream(out, true, "UTF-8"));
+        arena.setOpeningPlies(6);
+        arena.play(2);
+        String[] lines = out.toString("UTF-8").trim().split("\n");
+        assertEquals(opening(lines[0], 6), opening(lines[1], 6));
+        assertNotEquals(lines[0].contains("first W"), lines[1].contains("first W"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsAThread() {
+        new Arena(config(), config(), 0);
+    }
+
+    private static EngineConfig config() {
+        EngineConfig config = new EngineConfig();
+        config.set(EngineConfig.MAX_DEPTH, "1");
+        config.set(EngineConfig.TABLE_SIZE, "1");
+        return config;
+    }
+
+    private static String opening(String theLine, int thePlies) {
+        String[] moves = theLine.substring(theLine.indexOf(" moves ") + 7).split(",");
+        return String.join(",", Arrays.copyOf(moves, thePlies));
+    }
+
+}
@@ -0,0 +1,285 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BitBoardTest {
+
+    private BitBoard testBoard;
+
+    @Before
+    public void setUp() throws Exception {
+        testBoard = new BitBoard();
+    }
+
+    @Test
+    public void rotateBlockLeft() {
+        testBoard.makeMove(1,1,3,"R", "W");
+        testBoard.makeMove(1,2,3,"R", "W");
+        testBoard.makeMove(1,3,3,"R", "W");
+        testBoard.rotateBlockLeft(1);
+        assertEquals("W..W..W..", testBoard.getBlockState(1));
+    }
+
+    @Test
+    public void rotateBlockRight() {
+        testBoard.makeMove(1,1,3,"R", "W");
+        testBoard.makeMove(1,2,3,"R", "W");
+        testBoard.makeMove(1,3,3,"R", "W");
+        testBoard.rotateBlockRight(1);
+        assertEquals("..W..W..W", testBoard.getBlockState(1));
+    }
+
+    @Test
+    public void makeMove() {
+        testBoard.makeMove(1,1,3,"R", "B");
+        testBoard.makeMove(1,9,3,"R","W");
+        assertEquals("B.......W", testBoard.getBlockState(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void makeMoveOccupied() {
+        testBoard.makeMove(1,1,3,"R", "B");
+        testBoard.makeMove(1,1,3,"R", "W");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void makeMoveBadRotatingBlock() {
+        testBoard.makeMove(1,1,0,"L", "W");
+    }
+
+    @Test
+    public void makeMoveBadRotatingBlockChangesNothing() {
+        try {
+            testBoard.makeMove(1,1,5,"R", "W");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(new BitBoard(), testBoard);
+        }
+    }
+
+    @Test
+    public void getValidMovesEmptyBoard() {
+        assertEquals(288, testBoard.getValidMoves().size());
+    }
+
+    @Test
+    public void getValidMovesPlayedBoard() {
+        testBoard.makeMove(1,1,1,"R","B");
+        assertEquals(280, testBoard.getValidMoves().size());
+    }
+
+    @Test
+    public void evaluateUtility3() {
+        testBoard.makeMove(1,1,3,"R", "W");
+        testBoard.makeMove(1,2,3,"R", "W");
+        testBoard.makeMove(1,3,3,"R", "W");
+        assertEquals(3, testBoard.evaluateUtility("W"));
+        assertEquals(0, testBoard.evaluateUtility("B"));
+    }
+
+    @Test
+    public void isWinner() {
+        testBoard.makeMove(1,1,3,"R", "W");
+        testBoard.makeMove(1,2,3,"R", "W");
+        testBoard.makeMove(1,3,3,"R", "W");
+        testBoard.makeMove(2,1,3,"R", "W");
+        testBoard.makeMove(2,2,3,"R", "W");
+        assertTrue(testBoard.isWinner("W"));
+        assertFalse(testBoard.isWinner("B"));
+    }
+
+    @Test
+    public void getState() {
+        assertEquals(BitBoard.ONGOING, testBoard.getState());
+        testBoard.makeMove(1,1,3,"R", "W");
+        testBoard.makeMove(1,2,3,"R", "W");
+        testBoard.makeMove(1,3,3,"R", "W");
+        testBoard.makeMove(2,1,3,"R", "W");
+        assertEquals(BitBoard.ONGOING, testBoard.getState());
+        testBoard.makeMove(2,2,3,"R", "W");
+        assertEquals(BitBoard.WHITE_WINS, testBoard.getState());
+        BitBoard black = new BitBoard("...BBB..." + "...BB...." + "........." + ".........");
+        assertEquals(BitBoard.BLACK_WINS, black.getState());
+    }
+
+    @Test
+    public void getStateFivesForBothIsDraw() {
+        BitBoard board = new BitBoard("WWWBBB..." + "WW.BB...." + "........." + ".........");
+        assertTrue(board.isWinner("W"));
+        assertTrue(board.isWinner("B"));
+        assertEquals(BitBoard.DRAW, board.getState());
+    }
+
+    @Test
+    public void getStateFullBoardIsDraw() {
+        BitBoard board = new BitBoard("WBWBWBWBW" + "BWBWBWBWB" + "WBWBWBWBW" + "BWBWBWBWB");
+        assertFalse(board.isWinner("W"));
+        assertFalse(board.isWinner("B"));
+        assertEquals(BitBoard.DRAW, board.getState());
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        testBoard.makeMove(2,5,1,"L", "W");
+        BitBoard copy = new BitBoard(testBoard);
+        copy.makeMove(4,4,4,"L", "B");
+        assertEquals(".........", testBoard.getBlockState(4));
+        assertEquals(testBoard, new BitBoard(testBoard));
+    }
+
+    @Test
+    public void matchesBoardOnRandomGames() {
+        Random random = new Random(42);
+        for (int game = 0; game < 50; game++) {
+            Board board = new Board();
+            BitBoard bitBoard = new BitBoard();
+            String player = "W";
+            for (int turn = 0; turn < 36; turn++) {
+                ArrayList<Move> moves = board.getValidMoves();
+                assertEquals(moves.size(), bitBoard.getValidMoves().size());
+                Move move = moves.get(random.nextInt(moves.size()));
+                board.makeMove(move.getPlayBlock(), move.getPosition(), move.getRotatingBlock(),
+                        move.getDirection(), player);
+                bitBoard.makeMove(move.getPlayBlock(), move.getPosition(), move.getRotatingBlock(),
+                        move.getDirection(), player);
+                for (int block = 1; block < 5; block++) {
+                    assertEquals(board.getBlock(block).getState(), bitBoard.getBlockState(block));
+                }
+                assertEquals(board.evaluateUtility("W"), bitBoard.evaluateUtility("W"));
+                assertEquals(board.evaluateUtility("B"), bitBoard.evaluateUtility("B"));
+                assertEquals(bitBoard, new BitBoard(board));
+                player = player.equals("W") ? "B" : "W";
+            }
+        }
+    }
+
+    @Test
+    public void unmakeMoveRestoresBoard() {
+        Random random = new Random(7);
+        for (int turn = 0; turn < 30; turn++) {
+            int color = turn % 2 == 0 ? BitBoard.WHITE : BitBoard.BLACK;
+            BitBoard before = new BitBoard(testBoard);
+            for (Move move : testBoard.getValidMoves()) {
+                testBoard.makeMove(move, color);
+                testBoard.unmakeMove(move);
+                assertEquals(before, testBoard);
+            }
+            ArrayList<Move> moves = testBoard.getValidMoves();
+            testBoard.makeMove(moves.get(random.nextInt(moves.size())), color);
+        }
+    }
+
+    @Test
+    public void generateMovesMatchesValidMoves() {
+        Random random = new Random(5);
+        int[] buffer = new int[BitBoard.MAX_MOVES];
+        for (int turn = 0; turn < 36; turn++) {
+            ArrayList<Move> moves = testBoard.getValidMoves();
+            assertEquals(moves.size(), testBoard.generateMoves(buffer));
+            for (int i = 0; i < moves.size(); i++) {
+                assertEquals(moves.get(i).encode(), buffer[i]);
+            }
+            BitBoard before = new BitBoard(testBoard);
+            int move = buffer[random.nextInt(moves.size())];
+            testBoard.makeMove(move, turn % 2);
+            BitBoard expected = new BitBoard(before);
+            expected.makeMove(Move.decode(move), turn % 2);
+            assertEquals(expected, testBoard);
+            testBoard.unmakeMove(move);
+            assertEquals(before, testBoard);
+            testBoard.makeMove(move, turn % 2);
+        }
+    }
+
+    @Test
+    public void distinctMovesOfEmptyBoard() {
+        // With a single piece on the board, where it ends up is all that tells the children apart.
+        assertEquals(BitBoard.CELLS, testBoard.generateDistinctMoves(new int[BitBoard.MAX_MOVES], BitBoard.WHITE));
+    }
+
+    @Test
+    public void distinctMovesReachEveryChildOnce() {
+        Random random = new Random(9);
+        int[] all = new int[BitBoard.MAX_MOVES];
+        int[] distinct = new int[BitBoard.MAX_MOVES];
+        for (int turn = 0; turn < 36; turn++) {
+            int color = turn % 2;
+            HashSet<BitBoard> expected = new HashSet<>();
+            int count = testBoard.generateMoves(all);
+            for (int i = 0; i < count; i++) {
+                testBoard.makeMove(all[i], color);
+                expected.add(new BitBoard(testBoard));
+                testBoard.unmakeMove(all[i]);
+            }
+            HashSet<BitBoard> children = new HashSet<>();
+            int distinctCount = testBoard.generateDistinctMoves(distinct, color);
+            for (int i = 0; i < distinctCount; i++) {
+                testBoard.makeMove(distinct[i], color);
+                assertTrue(children.add(new BitBoard(testBoard)));
+                testBoard.unmakeMove(distinct[i]);
+            }
+            assertEquals(expected, children);
+            testBoard.makeMove(all[random.nextInt(count)], color);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void packedMoveOnOccupiedCell() {
+        testBoard.makeMove(new Move(1, 1, 2, "L"), BitBoard.WHITE);
+        testBoard.makeMove(new Move(1, 1, 3, "R").encode(), BitBoard.BLACK);
+    }
+
+    @Test
+    public void readsItsOwnText() {
+        testBoard.makeMove(new Move(2, 3, 2, "R"), BitBoard.BLACK);
+        testBoard.makeMove(new Move(4, 5, 1, "L"), BitBoard.WHITE);
+        BitBoard copy = new BitBoard(testBoard.toString());
+        assertEquals(testBoard, copy);
+        assertEquals(testBoard.hash(), copy.hash());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBadText() {
+        new BitBoard("WB.......W........B........X........");
+    }
+
+    @Test
+    public void makeMoveMatchesStringApi() {
+        BitBoard other = new BitBoard();
+        testBoard.makeMove(new Move(2, 3, 2, "R"), BitBoard.BLACK);
+        other.makeMove(2, 3, 2, "R", "B");
+        assertEquals(other, testBoard);
+    }
+
+    @Test
+    public void hashIsMaintainedIncrementally() {
+        Random random = new Random(11);
+        for (int turn = 0; turn < 36; turn++) {
+            int color = turn % 2 == 0 ? BitBoard.WHITE : BitBoard.BLACK;
+            long before = testBoard.hash();
+            ArrayList<Move> moves = testBoard.getValidMoves();
+            Move move = moves.get(random.nextInt(moves.size()));
+            testBoard.makeMove(move, color);
+            assertEquals(Zobrist.hashOf(testBoard.getPieces(BitBoard.WHITE), testBoard.getPieces(BitBoard.BLACK)),
+                    testBoard.hash());
+            assertEquals(new BitBoard(testBoard.toBoard()).hash(), testBoard.hash());
+            testBoard.unmakeMove(move);
+            assertEquals(before, testBoard.hash());
+            testBoard.makeMove(move, color);
+        }
+    }
+
+    @Test
+    public void hashTellsPositionsApart() {
+        BitBoard other = new BitBoard();
+        testBoard.makeMove(1, 1, 2, "L", "W");
+        other.makeMove(1, 1, 2, "L", "B");
+        assertNotEquals(other.hash(), testBoard.hash());
+        assertNotEquals(new BitBoard().hash(), testBoard.hash());
+    }
+}
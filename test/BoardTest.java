@@ -30,6 +30,20 @@ public class BoardTest {
         assertEquals("..W..W..W", testBoard.getBlock(1).getState());
     }
 
+    @Test
+    public void getStateFivesForBothIsDraw() {
+        for (int pos = 1; pos <= 3; pos++) {
+            testBoard.placePiece(1, pos, "W");
+            testBoard.placePiece(1, pos + 3, "B");
+        }
+        for (int pos = 1; pos <= 2; pos++) {
+            testBoard.placePiece(2, pos, "W");
+            testBoard.placePiece(2, pos + 3, "B");
+        }
+        assertEquals(BitBoard.DRAW, testBoard.getState());
+        assertEquals(new BitBoard(testBoard).getState(), testBoard.getState());
+    }
+
     @Test
     public void printBoard() {
     }
@@ -98,4 +112,13 @@ public class BoardTest {
         testBoard.makeMove(2,2,3,"R", "W");
         assertTrue(testBoard.isWinner("W"));
     }
+
+    @Test
+    public void unmakeMove() {
+        testBoard.makeMove(1,1,3,"R", "B");
+        Move move = new Move(1, 2, 1, "L");
+        testBoard.makeMove(move, "W");
+        testBoard.unmakeMove(move);
+        assertEquals("B........", testBoard.getBlock(1).getState());
+    }
 }
\ No newline at end of file
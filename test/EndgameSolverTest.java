@@ -0,0 +1,106 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class EndgameSolverTest {
+
+    private EndgameSolver mySolver = new EndgameSolver(1);
+
+    @Test
+    public void findsImmediateWin() {
+        // Black has four in a row on the top row of Blocks 1 and 2 and needs one more piece.
+        BitBoard board = new BitBoard("BBB..W..." + "B........" + "....W...." + "........W");
+        SearchResult result = mySolver.solve(board, BitBoard.BLACK);
+        assertEquals(EndgameSolver.WIN, result.getScore());
+        board.makeMove(result.getMove(), BitBoard.BLACK);
+        assertTrue(board.isWinner(BitBoard.BLACK));
+    }
+
+    @Test
+    public void fullBoardIsDraw() {
+        BitBoard board = new BitBoard("WBWBWBWBW" + "BWBWBWBWB" + "WBWBWBWBW" + "BWBWBWBWB");
+        SearchResult result = mySolver.solve(board, BitBoard.WHITE);
+        assertEquals(EndgameSolver.DRAW, result.getScore());
+        assertNull(result.getMove());
+    }
+
+    @Test
+    public void fivesForBothAreDraw() {
+        BitBoard board = new BitBoard();
+        for (int col = 0; col < 5; col++) {
+            board.placePiece(BitBoard.cellAt(0, col), BitBoard.WHITE);
+            board.placePiece(BitBoard.cellAt(5, col), BitBoard.BLACK);
+        }
+        assertEquals(EndgameSolver.DRAW, mySolver.solve(board, BitBoard.WHITE).getScore());
+        assertEquals(EndgameSolver.DRAW, mySolver.solve(board, BitBoard.BLACK).getScore());
+    }
+
+    @Test
+    public void agreesWithFullMinimax() {
+        Random random = new Random(17);
+        int solved = 0;
+        while (solved < 8) {
+            // Sixteen pieces each, four cells left, white to move.
+            ArrayList<Integer> cells = new ArrayList<>();
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                cells.add(cell);
+            }
+            Collections.shuffle(cells, random);
+            BitBoard board = new BitBoard();
+            for (int i = 0; i < BitBoard.CELLS - 4; i++) {
+                board.placePiece(cells.get(i), i % 2);
+            }
+            if (board.isWinner(BitBoard.WHITE) || board.isWinner(BitBoard.BLACK)) {
+                continue;
+            }
+            SearchResult result = mySolver.solve(board, BitBoard.WHITE);
+            assertEquals(minimax(board, BitBoard.WHITE), result.getScore());
+            board.makeMove(result.getMove(), BitBoard.WHITE);
+            assertEquals(result.getScore(), -minimax(board, BitBoard.BLACK));
+            solved++;
+        }
+    }
+
+    @Test
+    public void givesUpAtNodeLimit() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        assertNull(mySolver.solve(board, BitBoard.BLACK, Long.MAX_VALUE, 5000, () -> false));
+        assertTrue(mySolver.getNodes() <= 5000 + 1024);
+    }
+
+    @Test
+    public void searchHandsEndgameToSolver() {
+        BitBoard board = new BitBoard("WBWBW.BWB" + "BWB.BWBWB" + "WBW.WBWBW" + "BWB.BW..B");
+        SearchEngine engine = new SearchEngine();
+        engine.setSolver(new EndgameSolver(1), 10);
+        SearchResult result = engine.searchTimed(board, BitBoard.WHITE, 10000, BitBoard.CELLS);
+        assertEquals(6, result.getDepth());
+        SearchResult solved = mySolver.solve(board, BitBoard.WHITE);
+        if (solved.getScore() != EndgameSolver.LOSS) {
+            assertEquals(solved.getMove(), result.getMove());
+        }
+    }
+
+    private static int minimax(BitBoard theBoard, int theColor) {
+        boolean isWin = theBoard.isWinner(theColor);
+        boolean isLoss = theBoard.isWinner(1 - theColor);
+        if (isWin != isLoss) {
+            return isWin ? EndgameSolver.WIN : EndgameSolver.LOSS;
+        } else if (isWin || theBoard.isFull()) {
+            return EndgameSolver.DRAW;
+        }
+        int best = EndgameSolver.LOSS;
+        for (Move move : theBoard.getValidMoves()) {
+            theBoard.makeMove(move, theColor);
+            best = Math.max(best, -minimax(theBoard, 1 - theColor));
+            theBoard.unmakeMove(move);
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,109 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class EngineTest {
+
+    // Black has four in a row on the top row of Blocks 1 and 2 and needs one more piece.
+    private static final String BLACK_TO_WIN = "BBB..W..." + "B........" + "....W...." + "........W";
+
+    private Engine testEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        testEngine = new Engine();
+    }
+
+    @Test
+    public void findsWinningMove() {
+        EngineResult result = testEngine.analyze(BLACK_TO_WIN, "B", SearchLimits.depth(2));
+        BitBoard board = new BitBoard(BLACK_TO_WIN);
+        board.makeMove(result.getMove(), BitBoard.BLACK);
+        assertTrue(board.isWinner(BitBoard.BLACK));
+        assertTrue(result.getScore() > SearchEngine.WIN_THRESHOLD);
+    }
+
+    @Test
+    public void principalVariationIsPlayable() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        EngineResult result = testEngine.analyze(board, BitBoard.BLACK, SearchLimits.depth(3));
+        List<Move> line = result.getPrincipalVariation();
+        assertFalse(line.isEmpty());
+        assertEquals(result.getMove(), line.get(0));
+        int color = BitBoard.BLACK;
+        for (Move move : line) {
+            board.makeMove(move, color);
+            color = 1 - color;
+        }
+        assertEquals(3, result.getDepth());
+        assertTrue(result.getNodes() > 0);
+        SearchStats stats = result.getStats();
+        assertEquals(result.getNodes(), stats.getNodes());
+        assertEquals(3, stats.getDepth());
+        assertTrue(stats.getCutoffs() > 0 && stats.getLeaves() > 0);
+    }
+
+    @Test
+    public void nodeLimitStopsSearch() {
+        EngineResult result = testEngine.analyze(new BitBoard(), BitBoard.WHITE, SearchLimits.nodes(5000));
+        assertNotNull(result.getMove());
+        assertTrue(result.getNodes() < 5000 + 2048);
+    }
+
+    @Test
+    public void concurrentCallers() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<EngineResult>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> testEngine.analyze(BLACK_TO_WIN, "B", SearchLimits.depth(2))));
+        }
+        for (Future<EngineResult> result : results) {
+            BitBoard board = new BitBoard(BLACK_TO_WIN);
+            board.makeMove(result.get().getMove(), BitBoard.BLACK);
+            assertTrue(board.isWinner(BitBoard.BLACK));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void decidedGameHasNoMove() {
+        EngineResult result = testEngine.analyze("WWWBB...." + "WW.BB...." + "........." + ".........", "B",
+                                                 SearchLimits.depth(3));
+        assertNull(result.getMove());
+        assertEquals(-SearchEngine.WIN_SCORE, result.getScore());
+        assertTrue(result.getPrincipalVariation().isEmpty());
+    }
+
+    @Test
+    public void fivesForBothHaveNoMove() {
+        EngineResult result = testEngine.analyze("WWWBBB..." + "WW.BB...." + "........." + ".........", "W",
+                                                 SearchLimits.depth(3));
+        assertNull(result.getMove());
+        assertEquals(0, result.getScore());
+    }
+
+    @Test
+    public void stopEndsOnlyTheRunningSearch() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        EngineResult stopped = testEngine.analyze(board, BitBoard.BLACK, SearchLimits.depth(4),
+                                                  result -> testEngine.stop());
+        assertEquals(1, stopped.getDepth());
+        // The pooled engine is reused, and must not still be stopped.
+        assertEquals(3, testEngine.analyze(board, BitBoard.BLACK, SearchLimits.depth(3)).getDepth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBadPosition() {
+        testEngine.analyze("WB..", "W", SearchLimits.depth(1));
+    }
+
+}
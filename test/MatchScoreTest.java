@@ -0,0 +1,59 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MatchScoreTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void emptyMatchIsEven() {
+        MatchScore score = new MatchScore();
+        assertEquals(0.5, score.getScore(), DELTA);
+        assertEquals(0.0, score.getElo(), DELTA);
+        assertEquals(0.0, score.getLogLikelihoodRatio(0, 5), DELTA);
+    }
+
+    @Test
+    public void countsPoints() {
+        MatchScore score = record(3, 2, 1);
+        assertEquals(6, score.getGames());
+        assertEquals(4.0 / 6, score.getScore(), DELTA);
+        assertTrue(score.getElo() > 0);
+    }
+
+    @Test
+    public void eloAndScoreAreInverse() {
+        for (double elo = -300; elo <= 300; elo += 50) {
+            assertEquals(elo, MatchScore.elo(MatchScore.expectedScore(elo)), 1e-6);
+        }
+        assertEquals(0.75, MatchScore.expectedScore(400 * Math.log10(3)), DELTA);
+    }
+
+    @Test
+    public void marginShrinksWithGames() {
+        assertTrue(record(30, 40, 30).getErrorMargin() < record(3, 4, 3).getErrorMargin());
+    }
+
+    @Test
+    public void sprtAcceptsTheRightHypothesis() {
+        assertEquals(1, record(600, 200, 200).sprt(0, 10, 0.05, 0.05));
+        assertEquals(-1, record(200, 200, 600).sprt(0, 10, 0.05, 0.05));
+        assertEquals(0, record(5, 5, 5).sprt(0, 10, 0.05, 0.05));
+    }
+
+    private static MatchScore record(int theWins, int theDraws, int theLosses) {
+        MatchScore score = new MatchScore();
+        for (int i = 0; i < theWins; i++) {
+            score.addWin();
+        }
+        for (int i = 0; i < theDraws; i++) {
+            score.addDraw();
+        }
+        for (int i = 0; i < theLosses; i++) {
+            score.addLoss();
+        }
+        return score;
+    }
+
+}
@@ -0,0 +1,33 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveTest {
+
+    @Test
+    public void parseRoundTrips() {
+        Move move = new Move(2, 3, 4, "R");
+        assertEquals(move, Move.parse(move.toString()));
+    }
+
+    @Test
+    public void parseLowerCaseDirection() {
+        assertEquals(new Move(1, 1, 2, "L"), Move.parse("1/1 2l"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseRejectsBadBlock() {
+        Move.parse("5/1 2L");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseRejectsBadFormat() {
+        Move.parse("1 1 2L");
+    }
+
+    @Test
+    public void decodeEncode() {
+        Move move = Move.decode(new Move(4, 9, 1, "R").encode());
+        assertEquals("4/9 1R", move.toString());
+    }
+}
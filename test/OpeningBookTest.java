@@ -0,0 +1,103 @@
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class OpeningBookTest {
+
+    private static OpeningBook testBook;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        EngineConfig config = new EngineConfig();
+        config.set(EngineConfig.BOOK_FILE, "");
+        testBook = OpeningBook.build(new Engine(config), 2, SearchLimits.depth(1), 2);
+    }
+
+    @Test
+    public void holdsEveryCanonicalPosition() {
+        // The empty board and the six distinct positions after one move.
+        assertEquals(7, testBook.size());
+    }
+
+    @Test
+    public void answersEverySymmetricImage() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/2 3R"), BitBoard.WHITE);
+        Move move = testBook.lookup(board, BitBoard.BLACK);
+        assertNotNull(move);
+        board.makeMove(move, BitBoard.BLACK);
+        long expected = Symmetry.canonicalHash(board);
+        board.unmakeMove(move);
+
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            BitBoard image = image(board, symmetry);
+            Move answer = testBook.lookup(image, BitBoard.BLACK);
+            assertNotNull(answer);
+            assertTrue(image.isEmpty(answer.encode() & 0x3F));
+            image.makeMove(answer, BitBoard.BLACK);
+            assertEquals(expected, Symmetry.canonicalHash(image));
+        }
+    }
+
+    @Test
+    public void answersBlackMovingFirst() {
+        BitBoard board = new BitBoard();
+        Move move = testBook.lookup(board, BitBoard.BLACK);
+        assertNotNull(move);
+        assertEquals(testBook.lookup(board, BitBoard.WHITE), move);
+
+        // After one black move, white to move has the position of black to move after one white move.
+        board.makeMove(move, BitBoard.BLACK);
+        Move answer = testBook.lookup(board, BitBoard.WHITE);
+        assertNotNull(answer);
+        assertTrue(board.isEmpty(answer.encode() & 0x3F));
+    }
+
+    @Test
+    public void missesOtherPositions() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/2 3R"), BitBoard.WHITE);
+        board.makeMove(Move.parse("4/4 2L"), BitBoard.BLACK);
+        assertNull(testBook.lookup(board, BitBoard.WHITE));
+        assertNull(new OpeningBook().lookup(new BitBoard(), BitBoard.WHITE));
+    }
+
+    @Test
+    public void savesAndLoads() throws Exception {
+        File file = File.createTempFile("book", ".bin");
+        file.deleteOnExit();
+        testBook.save(file.getPath());
+        assertEquals(4 + 4 + 10 * 7, file.length());
+        OpeningBook loaded = OpeningBook.load(file.getPath());
+        assertEquals(testBook.size(), loaded.size());
+        assertEquals(testBook.lookup(new BitBoard(), BitBoard.WHITE), loaded.lookup(new BitBoard(), BitBoard.WHITE));
+        assertEquals(0, OpeningBook.load(file.getPath() + ".missing").size());
+    }
+
+    @Test
+    public void engineAnswersFromTheBook() {
+        Engine engine = new Engine();
+        engine.setBook(testBook);
+        EngineResult result = engine.analyze(new BitBoard(), BitBoard.WHITE, SearchLimits.depth(5));
+        assertEquals(testBook.lookup(new BitBoard(), BitBoard.WHITE), result.getMove());
+        assertEquals(0, result.getNodes());
+    }
+
+    private static BitBoard image(BitBoard theBoard, int theSymmetry) {
+        BitBoard image = new BitBoard();
+        long white = Symmetry.transform(theBoard.getPieces(BitBoard.WHITE), theSymmetry);
+        long black = Symmetry.transform(theBoard.getPieces(BitBoard.BLACK), theSymmetry);
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            if ((white & 1L << cell) != 0) {
+                image.placePiece(cell, BitBoard.WHITE);
+            } else if ((black & 1L << cell) != 0) {
+                image.placePiece(cell, BitBoard.BLACK);
+            }
+        }
+        return image;
+    }
+
+}
@@ -0,0 +1,68 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelSearchTest {
+
+    private ParallelSearch testSearch;
+
+    private BitBoard testBoard;
+
+    @Before
+    public void setUp() throws Exception {
+        testSearch = new ParallelSearch(4, new TranspositionTable(4));
+        testBoard = new BitBoard();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testSearch.shutdown();
+    }
+
+    @Test
+    public void findsWinningMove() {
+        testBoard.placePiece(1, 1, "B");
+        testBoard.placePiece(1, 2, "B");
+        testBoard.placePiece(1, 3, "B");
+        testBoard.placePiece(2, 1, "B");
+        testBoard.placePiece(3, 5, "W");
+        testBoard.placePiece(4, 5, "W");
+        SearchResult result = testSearch.search(testBoard, BitBoard.BLACK, 3);
+        testBoard.makeMove(result.getMove(), BitBoard.BLACK);
+        assertTrue(testBoard.isWinner("B"));
+    }
+
+    @Test
+    public void searchLeavesBoardUnchanged() {
+        testBoard.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        BitBoard before = new BitBoard(testBoard);
+        SearchResult result = testSearch.searchTimed(testBoard, BitBoard.BLACK, 200, BitBoard.CELLS);
+        assertEquals(before, testBoard);
+        assertTrue(testBoard.isEmpty(BitBoard.cellIndex(result.getMove().getPlayBlock(),
+                                                        result.getMove().getPosition())));
+        assertTrue(testSearch.getNodes() > 0);
+    }
+
+    @Test
+    public void mergesStatisticsOfWorkers() {
+        SearchResult result = testSearch.search(testBoard, BitBoard.WHITE, 2);
+        SearchStats stats = testSearch.getStats();
+        assertEquals(testSearch.getNodes(), stats.getNodes());
+        assertTrue(stats.getDepth() >= result.getDepth());
+        assertTrue(stats.getLeaves() > 0);
+    }
+
+    @Test
+    public void searchesRepeatedly() {
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(testSearch.search(testBoard, BitBoard.WHITE, 2).getMove());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsAThread() {
+        new ParallelSearch(0, new TranspositionTable(1));
+    }
+}
@@ -0,0 +1,133 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PatternEvaluatorTest {
+
+    private PatternEvaluator myEvaluator = new PatternEvaluator();
+
+    @Test
+    public void emptyBoardIsEven() {
+        assertEquals(0, myEvaluator.evaluate(new BitBoard(), BitBoard.WHITE));
+    }
+
+    @Test
+    public void scoreIsZeroSum() {
+        Random random = new Random(7);
+        for (int game = 0; game < 20; game++) {
+            BitBoard board = randomBoard(random, 12);
+            assertEquals(myEvaluator.evaluate(board, BitBoard.WHITE), -myEvaluator.evaluate(board, BitBoard.BLACK));
+        }
+    }
+
+    @Test
+    public void symmetricPositionsScoreAlike() {
+        Random random = new Random(11);
+        for (int game = 0; game < 20; game++) {
+            BitBoard board = randomBoard(random, 10);
+            int score = myEvaluator.evaluate(board, BitBoard.WHITE);
+            for (int sym = 1; sym < Symmetry.COUNT; sym++) {
+                BitBoard image = new BitBoard();
+                long white = Symmetry.transform(board.getPieces(BitBoard.WHITE), sym);
+                long black = Symmetry.transform(board.getPieces(BitBoard.BLACK), sym);
+                for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                    if ((white & 1L << cell) != 0) {
+                        image.placePiece(cell, BitBoard.WHITE);
+                    } else if ((black & 1L << cell) != 0) {
+                        image.placePiece(cell, BitBoard.BLACK);
+                    }
+                }
+                assertEquals(score, myEvaluator.evaluate(image, BitBoard.WHITE));
+            }
+        }
+    }
+
+    @Test
+    public void centerBeatsCorner() {
+        BitBoard center = new BitBoard();
+        center.placePiece(BitBoard.cellIndex(1, 5), BitBoard.WHITE);
+        BitBoard corner = new BitBoard();
+        corner.placePiece(BitBoard.cellIndex(1, 1), BitBoard.WHITE);
+        assertTrue(myEvaluator.evaluate(center, BitBoard.WHITE) > myEvaluator.evaluate(corner, BitBoard.WHITE));
+    }
+
+    @Test
+    public void openFourBeatsBlockedFour() {
+        BitBoard open = new BitBoard();
+        BitBoard blocked = new BitBoard();
+        for (int col = 0; col < 4; col++) {
+            open.placePiece(BitBoard.cellAt(0, col), BitBoard.WHITE);
+            blocked.placePiece(BitBoard.cellAt(0, col), BitBoard.WHITE);
+        }
+        open.placePiece(BitBoard.cellAt(5, 5), BitBoard.BLACK);
+        blocked.placePiece(BitBoard.cellAt(0, 4), BitBoard.BLACK);
+        assertTrue(myEvaluator.evaluate(open, BitBoard.WHITE) > myEvaluator.evaluate(blocked, BitBoard.WHITE));
+    }
+
+    @Test
+    public void doubleThreatIsRewarded() {
+        BitBoard single = new BitBoard();
+        BitBoard twice = new BitBoard();
+        for (int col = 1; col < 5; col++) {
+            single.placePiece(BitBoard.cellAt(0, col), BitBoard.WHITE);
+            twice.placePiece(BitBoard.cellAt(0, col), BitBoard.WHITE);
+        }
+        // Row 0 with cells 1 to 4 taken is completed by either cell 0 or cell 5.
+        single.placePiece(BitBoard.cellAt(0, 5), BitBoard.BLACK);
+        twice.placePiece(BitBoard.cellAt(5, 5), BitBoard.BLACK);
+        int difference = myEvaluator.evaluate(twice, BitBoard.WHITE) - myEvaluator.evaluate(single, BitBoard.WHITE);
+        assertTrue(difference >= 200);
+    }
+
+    @Test
+    public void weightsComeFromTheConfig() {
+        Properties properties = new Properties();
+        properties.setProperty("eval.center", "100");
+        PatternEvaluator evaluator = new PatternEvaluator(new EngineConfig(properties));
+        BitBoard board = new BitBoard();
+        board.placePiece(BitBoard.cellIndex(2, 5), BitBoard.BLACK);
+        int windows = myEvaluator.evaluate(board, BitBoard.BLACK) - 3;
+        assertEquals(windows + 100, evaluator.evaluate(board, BitBoard.BLACK));
+    }
+
+    @Test
+    public void incrementalMatchesFullScan() {
+        Random random = new Random(3);
+        for (int game = 0; game < 20; game++) {
+            BitBoard board = new BitBoard();
+            BitBoard tracked = new BitBoard();
+            myEvaluator.attach(tracked);
+            ArrayList<Move> played = new ArrayList<>();
+            for (int ply = 0; ply < BitBoard.CELLS; ply++) {
+                ArrayList<Move> moves = board.getValidMoves();
+                Move move = moves.get(random.nextInt(moves.size()));
+                board.makeMove(move, ply % 2);
+                tracked.makeMove(move, ply % 2);
+                played.add(move);
+                assertEquals(myEvaluator.evaluate(board, ply % 2), myEvaluator.evaluate(tracked, ply % 2));
+            }
+            for (int i = played.size() - 1; i >= 0; i--) {
+                board.unmakeMove(played.get(i));
+                tracked.unmakeMove(played.get(i));
+                assertEquals(myEvaluator.evaluate(board, BitBoard.WHITE), myEvaluator.evaluate(tracked, BitBoard.WHITE));
+            }
+        }
+    }
+
+    private static BitBoard randomBoard(Random theRandom, int thePieces) {
+        BitBoard board = new BitBoard();
+        for (int i = 0; i < thePieces; i++) {
+            int cell;
+            do {
+                cell = theRandom.nextInt(BitBoard.CELLS);
+            } while (!board.isEmpty(cell));
+            board.placePiece(cell, i % 2);
+        }
+        return board;
+    }
+
+}
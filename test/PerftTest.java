@@ -0,0 +1,81 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PerftTest {
+
+    private Perft testPerft;
+
+    @Before
+    public void setUp() throws Exception {
+        testPerft = new Perft(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testPerft.shutdown();
+    }
+
+    @Test
+    public void knownCounts() {
+        BitBoard board = new BitBoard();
+        assertEquals(1, testPerft.count(board, BitBoard.WHITE, 0));
+        assertEquals(288, testPerft.count(board, BitBoard.WHITE, 1));
+        assertEquals(288 * 280, testPerft.count(board, BitBoard.WHITE, 2));
+        assertEquals(288L * 280 * 272, testPerft.count(board, BitBoard.WHITE, 3));
+    }
+
+    @Test
+    public void distinctPositions() {
+        BitBoard board = new BitBoard();
+        assertEquals(36, testPerft.countPositions(board, BitBoard.WHITE, 1, false));
+        assertEquals(6, testPerft.countPositions(board, BitBoard.WHITE, 1, true));
+        testPerft.setDistinct(true);
+        assertEquals(36, testPerft.count(board, BitBoard.WHITE, 1));
+    }
+
+    @Test
+    public void matchesBoard() {
+        Random random = new Random(5);
+        BitBoard board = new BitBoard();
+        Board reference = new Board();
+        int color = BitBoard.WHITE;
+        for (int turn = 0; turn < 8; turn++) {
+            ArrayList<Move> moves = board.getValidMoves();
+            Move move = moves.get(random.nextInt(moves.size()));
+            board.makeMove(move, color);
+            reference.makeMove(move, BitBoard.playerOf(color));
+            color = 1 - color;
+        }
+        assertEquals(Perft.countBoard(reference, BitBoard.playerOf(color), 2), testPerft.count(board, color, 2));
+    }
+
+    @Test
+    public void finishedGameHasNoMoves() {
+        BitBoard board = new BitBoard();
+        for (int col = 0; col < 5; col++) {
+            board.placePiece(BitBoard.cellAt(3, col), BitBoard.BLACK);
+        }
+        assertEquals(0, testPerft.count(board, BitBoard.WHITE, 1));
+    }
+
+    @Test
+    public void divideAddsUp() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        long total = 0;
+        Map<Move, Long> counts = testPerft.divide(board, BitBoard.BLACK, 2);
+        assertEquals(280, counts.size());
+        for (long nodes : counts.values()) {
+            total += nodes;
+        }
+        assertEquals(testPerft.count(board, BitBoard.BLACK, 2), total);
+    }
+
+}
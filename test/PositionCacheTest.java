@@ -0,0 +1,116 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.*;
+
+public class PositionCacheTest {
+
+    private File testFile;
+
+    @Before
+    public void setUp() throws Exception {
+        testFile = File.createTempFile("cache", ".bin");
+        testFile.delete();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        testFile.delete();
+    }
+
+    @Test
+    public void storesAndProbes() {
+        PositionCache cache = new PositionCache(testFile.getPath(), 1);
+        assertEquals(0, cache.probe(12345L));
+        cache.store(12345L, 4, TranspositionTable.LOWER, -17, 300);
+        long entry = cache.probe(12345L);
+        assertEquals(4, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+        assertEquals(-17, TranspositionTable.scoreOf(entry));
+        assertEquals(300, TranspositionTable.moveOf(entry));
+        assertEquals(0, cache.probe(12345L + cache.getEntries()));
+    }
+
+    @Test
+    public void keepsDeeperResults() {
+        PositionCache cache = new PositionCache(testFile.getPath(), 1);
+        long other = 12345L + cache.getEntries();
+        cache.store(12345L, 6, TranspositionTable.EXACT, 10, 1);
+        cache.store(12345L, 5, TranspositionTable.EXACT, 20, 2);
+        assertEquals(10, TranspositionTable.scoreOf(cache.probe(12345L)));
+        assertEquals(0, cache.probe(other));
+    }
+
+    @Test
+    public void deepEntryDoesNotBlockOtherPositions() {
+        PositionCache cache = new PositionCache(testFile.getPath(), 1);
+        long other = 12345L + cache.getEntries();
+        cache.store(12345L, 9, TranspositionTable.EXACT, 10, 1);
+        cache.store(other, 2, TranspositionTable.EXACT, 30, 3);
+        assertEquals(30, TranspositionTable.scoreOf(cache.probe(other)));
+        assertEquals(0, cache.probe(12345L));
+    }
+
+    @Test
+    public void survivesReopening() {
+        PositionCache cache = new PositionCache(testFile.getPath(), 2);
+        cache.store(987654321L, 7, TranspositionTable.UPPER, 5, -1);
+        cache.flush();
+        PositionCache reopened = new PositionCache(testFile.getPath(), 8);
+        assertEquals(cache.getEntries(), reopened.getEntries());
+        assertEquals(7, TranspositionTable.depthOf(reopened.probe(987654321L)));
+        reopened.clear();
+        assertEquals(0, cache.probe(987654321L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsOtherFiles() throws Exception {
+        try (FileOutputStream out = new FileOutputStream(testFile)) {
+            out.write(new byte[64]);
+        }
+        new PositionCache(testFile.getPath(), 1);
+    }
+
+    @Test
+    public void warmCacheSavesNodes() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        board.makeMove(Move.parse("3/1 4R"), BitBoard.BLACK);
+
+        SearchEngine cold = new SearchEngine();
+        cold.setCache(new PositionCache(testFile.getPath(), 4), 2);
+        SearchResult expected = cold.search(new BitBoard(board), BitBoard.WHITE, 4);
+
+        // A new engine with an empty table, as after a restart, sharing only the file.
+        SearchEngine warm = new SearchEngine();
+        warm.setCache(new PositionCache(testFile.getPath(), 4), 2);
+        SearchResult result = warm.search(new BitBoard(board), BitBoard.WHITE, 4);
+        assertEquals(expected.getScore(), result.getScore());
+        assertTrue(warm.getNodes() * 2 < cold.getNodes());
+    }
+
+    @Test
+    public void deeperCacheEntryBeatsShallowTableEntry() {
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        board.makeMove(Move.parse("3/1 4R"), BitBoard.BLACK);
+
+        SearchEngine cold = new SearchEngine();
+        cold.setCache(new PositionCache(testFile.getPath(), 4), 2);
+        SearchResult expected = cold.search(new BitBoard(board), BitBoard.WHITE, 4);
+
+        // The shallow search leaves table entries of depth 1 for the root's children, while the cache
+        // holds them at depth 3.
+        SearchEngine warm = new SearchEngine();
+        warm.setCache(new PositionCache(testFile.getPath(), 4), 2);
+        warm.search(new BitBoard(board), BitBoard.WHITE, 2);
+        SearchResult result = warm.search(new BitBoard(board), BitBoard.WHITE, 4);
+        assertEquals(expected.getScore(), result.getScore());
+        assertTrue(warm.getNodes() * 10 < cold.getNodes());
+    }
+
+}
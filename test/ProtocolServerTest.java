@@ -0,0 +1,94 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class ProtocolServerTest {
+
+    // Black has four in a row on the top row of Blocks 1 and 2 and needs one more piece.
+    private static final String BLACK_TO_WIN = "BBB..W..." + "B........" + "....W...." + "........W";
+
+    private Engine testEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        testEngine = new Engine();
+    }
+
+    @Test
+    public void answersIsReady() throws Exception {
+        assertEquals("readyok", run("isready")[0]);
+    }
+
+    @Test
+    public void searchPrintsInfoAndBestMove() throws Exception {
+        String[] lines = run("position startpos moves 1/5 2L", "go depth 3", "quit");
+        assertTrue(lines.length >= 3);
+        for (int i = 0; i < lines.length - 2; i++) {
+            assertTrue(lines[i], lines[i].matches("info depth \\d+ score -?\\d+ nodes \\d+ nps \\d+ time \\d+ pv .*"));
+        }
+        String stats = lines[lines.length - 2];
+        assertTrue(stats, stats.matches("info string stats depth=\\d+ time=\\d+ nodes=\\d+ .* ebf=.*"));
+        String best = lines[lines.length - 1];
+        assertTrue(best, best.startsWith("bestmove "));
+        Move move = Move.parse(best.substring("bestmove ".length()));
+        BitBoard board = new BitBoard();
+        board.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        assertTrue(board.isValidMove(move.getPlayBlock(), move.getPosition()));
+    }
+
+    @Test
+    public void findsWinningMoveOfPosition() throws Exception {
+        String[] lines = run("position " + BLACK_TO_WIN + " B", "go depth 2");
+        Move move = Move.parse(lines[lines.length - 1].substring("bestmove ".length()));
+        BitBoard board = new BitBoard(BLACK_TO_WIN);
+        board.makeMove(move, BitBoard.BLACK);
+        assertTrue(board.isWinner(BitBoard.BLACK));
+    }
+
+    @Test
+    public void reportsBadCommands() throws Exception {
+        String[] lines = run("launch", "position startpos moves 1/5", "go depth", "isready");
+        assertEquals(4, lines.length);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(lines[i], lines[i].startsWith("info string "));
+        }
+        assertEquals("readyok", lines[3]);
+    }
+
+    @Test
+    public void stopEndsSearch() throws Exception {
+        long start = System.currentTimeMillis();
+        String[] lines = run("go movetime 60000", "isready", "stop");
+        assertTrue(System.currentTimeMillis() - start < 30000);
+        assertTrue(lines[lines.length - 1].startsWith("bestmove "));
+    }
+
+    @Test
+    public void failedSearchStillEndsWithBestMove() throws Exception {
+        testEngine = new Engine() {
+            @Override
+            public EngineResult analyze(BitBoard theBoard, int theColor, SearchLimits theLimits,
+                                        SearchListener theListener) {
+                throw new IllegalStateException("broken");
+            }
+        };
+        String[] lines = run("go depth 2");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("info string error ") && lines[0].contains("broken"));
+        assertEquals("bestmove none", lines[1]);
+    }
+
+    private String[] run(String... theCommands) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ProtocolServer server = new ProtocolServer(testEngine, new PrintStream(out, true, "UTF-8"));
+        server.run(new BufferedReader(new StringReader(String.join("\n", theCommands))));
+        return out.toString("UTF-8").trim().split("\n");
+    }
+
+}
@@ -0,0 +1,46 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RotationTest {
+
+    @Test
+    public void rotateRightMatchesBlock() {
+        for (int pattern = 0; pattern < Rotation.PATTERNS; pattern++) {
+            Block block = new Block(toState(pattern));
+            block.rotateRight();
+            assertEquals(block.getState(), toState(Rotation.rotateRight(pattern)));
+        }
+    }
+
+    @Test
+    public void rotateLeftMatchesBlock() {
+        for (int pattern = 0; pattern < Rotation.PATTERNS; pattern++) {
+            Block block = new Block(toState(pattern));
+            block.rotateLeft();
+            assertEquals(block.getState(), toState(Rotation.rotateLeft(pattern)));
+        }
+    }
+
+    @Test
+    public void leftUndoesRight() {
+        for (int pattern = 0; pattern < Rotation.PATTERNS; pattern++) {
+            assertEquals(pattern, Rotation.rotateLeft(Rotation.rotateRight(pattern)));
+        }
+    }
+
+    @Test
+    public void rotateBlockOnlyTouchesItsBlock() {
+        long bits = 0x1FFL << 27 | 0x1L << 9;
+        long rotated = Rotation.rotateBlock(bits, 2, true);
+        assertEquals(0x1FFL << 27 | 0x4L << 9, rotated);
+    }
+
+    private static String toState(int thePattern) {
+        StringBuilder state = new StringBuilder();
+        for (int i = 0; i < 9; i++) {
+            state.append((thePattern >>> i & 1) != 0 ? 'W' : '.');
+        }
+        return state.toString();
+    }
+}
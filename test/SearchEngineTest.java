@@ -0,0 +1,108 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SearchEngineTest {
+
+    private SearchEngine testEngine;
+
+    private BitBoard testBoard;
+
+    @Before
+    public void setUp() throws Exception {
+        testEngine = new SearchEngine();
+        testBoard = new BitBoard();
+    }
+
+    @Test
+    public void findsWinningMove() {
+        testBoard.placePiece(1, 1, "B");
+        testBoard.placePiece(1, 2, "B");
+        testBoard.placePiece(1, 3, "B");
+        testBoard.placePiece(2, 1, "B");
+        testBoard.placePiece(3, 5, "W");
+        testBoard.placePiece(4, 5, "W");
+        SearchResult result = testEngine.search(testBoard, BitBoard.BLACK, 2);
+        testBoard.makeMove(result.getMove(), BitBoard.BLACK);
+        assertTrue(testBoard.isWinner("B"));
+        assertTrue(result.getScore() >= SearchEngine.WIN_THRESHOLD);
+    }
+
+    @Test
+    public void countsStatistics() {
+        testBoard.makeMove(Move.parse("1/5 2L"), BitBoard.WHITE);
+        SearchResult result = testEngine.search(testBoard, BitBoard.BLACK, 3);
+        SearchStats stats = testEngine.getStats();
+        assertEquals(testEngine.getNodes(), stats.getNodes());
+        assertEquals(result.getDepth(), stats.getDepth());
+        assertTrue(stats.getLeaves() > 0 && stats.getLeaves() < stats.getNodes());
+        assertTrue(stats.getCutoffs() > 0);
+        assertTrue(stats.getFirstMoveCutoffs() <= stats.getCutoffs());
+        assertTrue(stats.getTableHits() > 0);
+    }
+
+    @Test
+    public void blocksLosingMove() {
+        testBoard.placePiece(1, 4, "W");
+        testBoard.placePiece(1, 5, "W");
+        testBoard.placePiece(1, 6, "W");
+        testBoard.placePiece(2, 4, "W");
+        testBoard.placePiece(3, 5, "B");
+        testBoard.placePiece(4, 1, "B");
+        testBoard.placePiece(4, 9, "B");
+        SearchResult result = testEngine.search(testBoard, BitBoard.BLACK, 2);
+        assertTrue(result.getScore() > -SearchEngine.WIN_THRESHOLD);
+    }
+
+    @Test
+    public void searchRestoresBoard() {
+        testBoard.makeMove(1, 5, 2, "L", "W");
+        BitBoard before = new BitBoard(testBoard);
+        testEngine.search(testBoard, BitBoard.BLACK, 2);
+        assertEquals(before, testBoard);
+    }
+
+    @Test
+    public void fullBoardHasNoMove() {
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            testBoard.placePiece(cell, (cell / 2 + cell / 6) % 2);
+        }
+        assertNull(testEngine.search(testBoard, BitBoard.WHITE, 2).getMove());
+    }
+
+    @Test
+    public void searchTimedKeepsToBudget() {
+        testBoard.makeMove(1, 5, 2, "L", "W");
+        long start = System.currentTimeMillis();
+        SearchResult result = testEngine.searchTimed(testBoard, BitBoard.BLACK, 200, BitBoard.CELLS);
+        long elapsed = System.currentTimeMillis() - start;
+        assertNotNull(result.getMove());
+        assertTrue(result.getDepth() >= 1);
+        assertTrue("search took " + elapsed + "ms", elapsed < 1000);
+    }
+
+    @Test
+    public void searchTimedFindsWinningMove() {
+        testBoard.placePiece(1, 1, "W");
+        testBoard.placePiece(1, 2, "W");
+        testBoard.placePiece(1, 3, "W");
+        testBoard.placePiece(2, 1, "W");
+        SearchResult result = testEngine.searchTimed(testBoard, BitBoard.WHITE, 100, BitBoard.CELLS);
+        testBoard.makeMove(result.getMove(), BitBoard.WHITE);
+        assertTrue(testBoard.isWinner("W"));
+    }
+
+    @Test
+    public void heuristicOrderingSearchesFewerNodes() {
+        for (String move : new String[] {"1/1 1R", "2/3 4L", "3/5 2R", "4/9 3L"}) {
+            testBoard.makeMove(Move.parse(move), Long.bitCount(testBoard.getOccupied()) % 2);
+        }
+        SearchEngine plain = new SearchEngine();
+        plain.setMoveOrdering(new TableMoveOrdering());
+        SearchResult plainResult = plain.searchTimed(testBoard, BitBoard.WHITE, Long.MAX_VALUE, 3);
+        SearchResult result = testEngine.searchTimed(testBoard, BitBoard.WHITE, Long.MAX_VALUE, 3);
+        assertEquals(plainResult.getScore(), result.getScore());
+        assertTrue(testEngine.getNodes() * 2 < plain.getNodes());
+    }
+}
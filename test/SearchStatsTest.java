@@ -0,0 +1,41 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SearchStatsTest {
+
+    @Test
+    public void addSumsCountersAndKeepsDeepest() {
+        SearchStats stats = new SearchStats(100, 60, 20, 15, 10, 3, 40)
+            .add(new SearchStats(50, 30, 10, 9, 5, 4, 35));
+        assertEquals(150, stats.getNodes());
+        assertEquals(90, stats.getLeaves());
+        assertEquals(30, stats.getCutoffs());
+        assertEquals(24, stats.getFirstMoveCutoffs());
+        assertEquals(15, stats.getTableHits());
+        assertEquals(4, stats.getDepth());
+        assertEquals(40, stats.getTimeMillis());
+    }
+
+    @Test
+    public void ratios() {
+        SearchStats stats = new SearchStats(1000, 800, 40, 30, 0, 3, 500);
+        assertEquals(0.75, stats.getFirstMoveCutoffRatio(), 1e-9);
+        assertEquals(10.0, stats.getEffectiveBranchingFactor(), 1e-9);
+        assertEquals(2000, stats.getNodesPerSecond());
+    }
+
+    @Test
+    public void emptySearch() {
+        SearchStats stats = new SearchStats(0, 0, 0, 0, 0, 0, 0);
+        assertEquals(0, stats.getFirstMoveCutoffRatio(), 0);
+        assertEquals(0, stats.getEffectiveBranchingFactor(), 0);
+    }
+
+    @Test
+    public void toStringIsOneLineOfPairs() {
+        String line = new SearchStats(1000, 800, 40, 30, 7, 3, 500).toString();
+        assertEquals("depth=3 time=500 nodes=1000 nps=2000 leaves=800 cutoffs=40 firstCutoff=0.750 ttHits=7"
+                     + " ebf=10.00", line);
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SymmetryTest {
+
+    private BitBoard testBoard;
+
+    @Before
+    public void setUp() throws Exception {
+        testBoard = new BitBoard();
+        Random random = new Random(3);
+        for (int turn = 0; turn < 12; turn++) {
+            ArrayList<Move> moves = testBoard.getValidMoves();
+            testBoard.makeMove(moves.get(random.nextInt(moves.size())), turn % 2);
+        }
+    }
+
+    @Test
+    public void inverseUndoesSymmetry() {
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            long white = testBoard.getPieces(BitBoard.WHITE);
+            long image = Symmetry.transform(white, symmetry);
+            assertEquals(white, Symmetry.transform(image, Symmetry.inverse(symmetry)));
+        }
+    }
+
+    @Test
+    public void symmetriesAreDistinct() {
+        HashSet<Long> images = new HashSet<>();
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            images.add(Symmetry.transform(1L << BitBoard.cellAt(0, 1), symmetry));
+        }
+        assertEquals(Symmetry.COUNT, images.size());
+    }
+
+    @Test
+    public void transformMoveCommutesWithMakeMove() {
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            for (Move move : testBoard.getValidMoves()) {
+                BitBoard played = new BitBoard(testBoard);
+                played.makeMove(move, BitBoard.WHITE);
+
+                BitBoard image = transformed(testBoard, symmetry);
+                image.makeMove(Move.decode(Symmetry.transformMove(move.encode(), symmetry)), BitBoard.WHITE);
+                assertEquals(transformed(played, symmetry), image);
+            }
+        }
+    }
+
+    @Test
+    public void symmetricPositionsShareCanonicalHash() {
+        long canonical = Symmetry.canonicalHash(testBoard);
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            BitBoard image = transformed(testBoard, symmetry);
+            assertEquals(canonical, Symmetry.canonicalHash(image));
+            int toCanonical = Symmetry.canonicalSymmetry(image);
+            assertEquals(canonical, Symmetry.hashOf(image, toCanonical));
+        }
+    }
+
+    @Test
+    public void oneStoneHasSixCanonicalPositions() {
+        HashSet<Long> canonical = new HashSet<>();
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            BitBoard board = new BitBoard();
+            board.placePiece(cell, BitBoard.WHITE);
+            canonical.add(Symmetry.canonicalHash(board));
+        }
+        assertEquals(6, canonical.size());
+    }
+
+    private static BitBoard transformed(BitBoard theBoard, int theSymmetry) {
+        BitBoard image = new BitBoard();
+        long white = Symmetry.transform(theBoard.getPieces(BitBoard.WHITE), theSymmetry);
+        long black = Symmetry.transform(theBoard.getPieces(BitBoard.BLACK), theSymmetry);
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            if ((white & 1L << cell) != 0) {
+                image.placePiece(cell, BitBoard.WHITE);
+            } else if ((black & 1L << cell) != 0) {
+                image.placePiece(cell, BitBoard.BLACK);
+            }
+        }
+        return image;
+    }
+}
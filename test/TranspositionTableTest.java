@@ -0,0 +1,67 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+
+    private TranspositionTable testTable;
+
+    @Before
+    public void setUp() throws Exception {
+        testTable = new TranspositionTable(1);
+    }
+
+    @Test
+    public void sizeIsPowerOfTwo() {
+        assertEquals(65536, testTable.getEntries());
+    }
+
+    @Test
+    public void probeEmpty() {
+        assertEquals(0, testTable.probe(12345L));
+    }
+
+    @Test
+    public void storeAndProbe() {
+        testTable.store(12345L, 4, TranspositionTable.LOWER, -73, 300);
+        long entry = testTable.probe(12345L);
+        assertEquals(4, TranspositionTable.depthOf(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.boundOf(entry));
+        assertEquals(-73, TranspositionTable.scoreOf(entry));
+        assertEquals(300, TranspositionTable.moveOf(entry));
+        assertEquals(1.0, testTable.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void storeWithoutMove() {
+        testTable.store(99L, 0, TranspositionTable.EXACT, 0, -1);
+        assertEquals(-1, TranspositionTable.moveOf(testTable.probe(99L)));
+    }
+
+    @Test
+    public void collisionIsMiss() {
+        long otherKey = 12345L + testTable.getEntries();
+        testTable.store(12345L, 4, TranspositionTable.EXACT, 10, 1);
+        assertEquals(0, testTable.probe(otherKey));
+        assertEquals(1, testTable.getCollisions());
+    }
+
+    @Test
+    public void deeperEntryIsKept() {
+        long otherKey = 12345L + testTable.getEntries();
+        testTable.store(12345L, 6, TranspositionTable.EXACT, 10, 1);
+        testTable.store(otherKey, 2, TranspositionTable.EXACT, 20, 2);
+        assertEquals(10, TranspositionTable.scoreOf(testTable.probe(12345L)));
+        testTable.newSearch();
+        testTable.store(otherKey, 2, TranspositionTable.EXACT, 20, 2);
+        assertEquals(20, TranspositionTable.scoreOf(testTable.probe(otherKey)));
+    }
+
+    @Test
+    public void moveEncodingRoundTrips() {
+        for (Move move : new BitBoard().getValidMoves()) {
+            assertEquals(move, Move.decode(move.encode()));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class WinLinesTest {
+
+    @Test
+    public void windowsAreDistinctFives() {
+        HashSet<Long> windows = new HashSet<>();
+        for (long window : WinLines.WINDOWS) {
+            assertEquals(5, Long.bitCount(window));
+            windows.add(window);
+        }
+        assertEquals(WinLines.WINDOW_COUNT, windows.size());
+    }
+
+    @Test
+    public void emptyBoard() {
+        assertEquals(0, WinLines.longestStreak(0L));
+        assertFalse(WinLines.hasFive(0L));
+    }
+
+    @Test
+    public void fullRow() {
+        long row = 0L;
+        for (int col = 0; col < 6; col++) {
+            row |= 1L << BitBoard.cellAt(2, col);
+        }
+        assertEquals(6, WinLines.longestStreak(row));
+        assertTrue(WinLines.hasFive(row));
+    }
+
+    @Test
+    public void shortDiagonalIsNotAStreak() {
+        long diagonal = 1L << BitBoard.cellAt(0, 2) | 1L << BitBoard.cellAt(1, 1) | 1L << BitBoard.cellAt(2, 0);
+        assertEquals(1, WinLines.longestStreak(diagonal));
+    }
+
+    @Test
+    public void matchesLineWalkOnRandomBoards() {
+        Random random = new Random(5);
+        for (int i = 0; i < 20000; i++) {
+            long bits = random.nextLong() & random.nextLong() & ((1L << BitBoard.CELLS) - 1);
+            int streak = walkLines(bits);
+            assertEquals(streak, WinLines.longestStreak(bits));
+            assertEquals(streak >= 5, WinLines.hasFive(bits));
+        }
+    }
+
+    /**
+     * Measures the longest streak by walking the rows, columns and the eight five cell diagonals.
+     */
+    private static int walkLines(long theBits) {
+        int[][] lines = new int[20][];
+        int count = 0;
+        for (int i = 0; i < 6; i++) {
+            lines[count++] = new int[] {i, 0, 0, 1, 6};
+            lines[count++] = new int[] {0, i, 1, 0, 6};
+        }
+        int[][] diagonals = {{1, 0, 1}, {0, 0, 1}, {1, 1, 1}, {0, 1, 1}, {0, 4, -1}, {0, 5, -1}, {1, 4, -1}, {1, 5, -1}};
+        for (int[] diagonal : diagonals) {
+            lines[count++] = new int[] {diagonal[0], diagonal[1], 1, diagonal[2], 5};
+        }
+
+        int max = 0;
+        for (int[] line : lines) {
+            int streak = 0;
+            for (int i = 0; i < line[4]; i++) {
+                if ((theBits & 1L << BitBoard.cellAt(line[0] + i * line[2], line[1] + i * line[3])) != 0) {
+                    max = Math.max(max, ++streak);
+                } else {
+                    streak = 0;
+                }
+            }
+        }
+        return max;
+    }
+}